@@ -17,11 +17,16 @@ public final class Constants {
     public static final double MAX_SPEED = Units.feetToMeters(14.5); // Maximum speed of robot in meters per second, used to limit acceleration
 
     public static final class AutonConstants {
-        public static final PIDConstants TRANSLATION_PID = new PIDConstants(0.7, 0, 0);
-        public static final PIDConstants ANGLE_PID = new PIDConstants(0.4, 0, 0.01);
+        // Path following gains, retune with the tunePathGains Gradle task
+        public static final PIDConstants TRANSLATION_PID = new PIDConstants(5.0, 0, 0);
+        public static final PIDConstants ANGLE_PID = new PIDConstants(5.0, 0, 0);
 
         public static final double DISTANCE_FROM_REEF = Units.inchesToMeters(16.25 + 35);
+        public static final double PATHFINDING_MAX_ACCELERATION = 4.0; // Meters per second squared
+        public static final double PATHFINDING_MAX_ANGULAR_ACCELERATION = Units.degreesToRadians(720); // Radians per second squared
         public static final boolean DRIVE_WITH_VISION = true;
+        public static final int PATHFINDING_EXPANSIONS_PER_LOOP = 1000; // D* Lite expansions per loop, resumed next loop
+        public static final double PATHFINDING_REPLAN_THRESHOLD = 0.5; // Meters shorter before switching paths
     }
 
     public static final class FieldConstants {
@@ -30,17 +35,75 @@ public final class Constants {
 
         public static final double[] BLUE_REEF_POSE = {4.4895, 4.0259};
         public static final double[] RED_REEF_POSE = {13.0588, 4.0259};
+
+        // Obstacles of the navigation grid
+        public static final double REEF_APOTHEM = Units.inchesToMeters(65.5) / 2; // Center to the flat faces of the reef
+        public static final double[] BARGE_SUPPORT_HALF_SIZE = {0.2, 0.2}; // Meters, centered on the field
+        public static final double CORAL_STATION_LENGTH = 1.75; // Meters along the alliance wall side of each corner
+        public static final double CORAL_STATION_WIDTH = 1.27; // Meters along the side wall of each corner
+        public static final double NAV_GRID_NODE_SIZE = 0.3; // Meters per navigation grid cell
     }
 
     public static final class DrivebaseConstants {
         // Hold time on motor brakes when disabled, in seconds
         public static final double WHEEL_LOCK_TIME = 10;
+
+        // Anti-tip acceleration limiter, see TipLimiter
+        public static final double TIP_MARGIN = 0.9; // Fraction of the tipping acceleration allowed
+        public static final double TIP_LIMITER_PERIOD = 0.02; // Seconds assumed between commands after a pause
+    }
+
+    public static final class TelemetryConstants {
+        public static final double FLUSH_PERIOD = 0.04; // Seconds between NetworkTables flushes
+        public static final double BANDWIDTH_WINDOW = 1.0; // Seconds per bandwidth measurement
+        public static final double DASHBOARD_PERIOD = 0.02; // Seconds between Custom Dashboard publishes
+        public static final double DRIVEBASE_PERIOD = 0.04; // Seconds between drivebase publishes
+        public static final double VISION_PERIOD = 0.1; // Seconds between vision publishes
+        public static final double FIELD_POSITION_TOLERANCE = 0.005; // Meters a field object moves before it is republished
+        public static final double FIELD_ANGLE_TOLERANCE = 0.5; // Degrees a field object turns before it is republished
+        public static final double TRACKED_TARGETS_PERIOD = 0.25; // Seconds between tracked AprilTag field publishes
+        public static final double JVM_WINDOW = 1.0; // Seconds per JVM allocation rate measurement
+        public static final double RECORDER_FLUSH_PERIOD = 1.0; // Seconds before a partial recorder buffer is written
+        public static final int RECORDER_BUFFER_SIZE = 64 * 1024; // Bytes per drive recorder buffer
+        public static final int RECORDER_BUFFER_COUNT = 16; // Drive recorder buffers, bounds its memory
+    }
+
+    public static final class WarmupConstants {
+        public static final double LOOP_BUDGET = 0.008; // Seconds of warmup work per disabled loop
+        public static final int MIN_ITERATIONS = 20000; // Runs per workload before settling is checked, above the C2 threshold
+        public static final double SETTLE_TIME = 2.0; // Seconds without new JIT compilation before the robot is warm
+    }
+
+    public static final class WatchdogConstants {
+        public static final double LOOP_BUDGET = 0.02; // Seconds before a robot loop is reported as an overrun
+        public static final int MAX_EPOCHS = 64; // Epochs recorded per loop
+        public static final int SNAPSHOT_CAPACITY = 32; // Overrun snapshots kept for retrieval
+    }
+
+    public static final class PeriodicConstants {
+        public static final boolean PARALLEL = false; // Run independent subsystem periodic work concurrently
+        public static final int WORKER_THREADS = 1; // Workers besides the main thread, the roboRIO has two cores
+    }
+
+    public static final class CharacterizationConstants {
+        public static final double SAMPLE_PERIOD = 0.02; // Seconds between drive motor samples, one per robot loop
+        public static final int MAX_SAMPLES = 2048; // Samples recorded per characterization, about 40 s
+        public static final int ACCELERATION_SPAN = 1; // Samples on each side of the acceleration central difference
+        public static final double MIN_VELOCITY = 0.05; // Meters per second below which samples are skipped
+        public static final int MIN_SAMPLES = 200; // Samples needed for a fit to be applied
+        public static final double MIN_R_SQUARED = 0.9; // Coefficient of determination needed for a fit to be applied
     }
 
     public static class OperatorConstants {
         // Joystick Deadband
         public static final double DEADBAND = 0.1;
-        public static final double TURN_CONSTANT = 6;
         public static final double SCALE_TRANSLATION = 0.75;
+
+        // Input shaping, see DriverInput
+        public static final double TRANSLATION_EXPO = 0.4; // Cubic weight of the translation response curve
+        public static final double ROTATION_EXPO = 0.6; // Cubic weight of the rotation response curve
+        public static final int RESPONSE_CURVE_SAMPLES = 256; // Lookup table intervals per response curve
+        public static final double TRANSLATION_SLEW_RATE = 4.0; // Full stick per second on each translation axis
+        public static final double ROTATION_SLEW_RATE = 6.0; // Full stick per second on rotation
     }
 }
@@ -9,6 +9,13 @@ import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.utils.ConfigRegistry;
+import frc.robot.utils.JitWarmup;
+import frc.robot.utils.JvmMonitor;
+import frc.robot.utils.LoopWatchdog;
+import frc.robot.utils.ParallelPeriodic;
+import frc.robot.utils.StartupBenchmark;
+import frc.robot.utils.TelemetryScheduler;
 
 /**
  * This class's methods are called automatically for each mode per TimedRobot documentation.
@@ -22,10 +29,24 @@ public class Robot extends TimedRobot {
     private Timer disabledTimer;
 
     public Robot() {
+        // Created first so they register their scheduler callbacks and telemetry on the main thread.
+        LoopWatchdog.getInstance();
+        JvmMonitor.getInstance();
+
         // Instantiate our RobotContainer. This will perform all our button bindings, and put our autonomous chooser on the dashboard.
         m_robotContainer = new RobotContainer();
     }
 
+    /** Runs one robot loop, timed by the {@link LoopWatchdog} and measured by the {@link JvmMonitor}. */
+    @Override
+    protected void loopFunc() {
+        JvmMonitor.getInstance().beginLoop();
+        LoopWatchdog.getInstance().beginLoop();
+        super.loopFunc();
+        LoopWatchdog.getInstance().endLoop();
+        JvmMonitor.getInstance().endLoop();
+    }
+
     /** This function is run when the robot is first started up and should be used for any initialization code. */
     @Override
     public void robotInit() {
@@ -47,11 +68,28 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void robotPeriodic() {
+        // Attributes the time spent so far in this loop, in the mode specific periodic functions.
+        LoopWatchdog.getInstance().epoch("Robot", ".modePeriodic()");
+
+        // Measures the time from JVM launch to the first loop.
+        StartupBenchmark.getInstance().robotPeriodic();
+
+        // Runs the periodic work registered by the subsystems, and waits for all of it before any command runs.
+        ParallelPeriodic.getInstance().run();
+
         // Runs the Scheduler. This is responsible for polling buttons, adding newly-scheduled
         // commands, running already-scheduled commands, removing finished or interrupted commands,
         // and running subsystem periodic() methods. This must be called from the robot's periodic
         // block in order for anything in the Command-based framework to work.
         CommandScheduler.getInstance().run();
+        LoopWatchdog.getInstance().epoch("CommandScheduler", ".run()");
+
+        // Reports the mismatches of a configuration reloaded in simulation.
+        ConfigRegistry.getInstance().periodic();
+
+        // Publishes the telemetry changed during this loop, after every subsystem and command has run.
+        TelemetryScheduler.getInstance().run();
+        LoopWatchdog.getInstance().epoch("TelemetryScheduler", ".run()");
     }
 
     /** Called once when the robot enters Disabled mode. */
@@ -70,6 +108,12 @@ public class Robot extends TimedRobot {
             disabledTimer.stop();
             disabledTimer.reset();
         }
+
+        // Keeps the selected autonomous built for the current alliance.
+        m_robotContainer.autonRegistry.periodic();
+
+        // Compiles the hot control paths before the first enable.
+        JitWarmup.getInstance().run();
     }
 
     /** Runs the autonomous command selected in {@link RobotContainer} class. */
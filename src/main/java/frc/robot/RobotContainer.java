@@ -5,20 +5,30 @@
 package frc.robot;
 
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
-import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import frc.robot.Constants.AutonConstants;
-import frc.robot.Constants.OperatorConstants;
+import frc.robot.commands.auton.ExampleAuton;
 import frc.robot.commands.auton.NoneAuton;
+import frc.robot.commands.auton.utils.AutonCommand;
+import frc.robot.commands.auton.utils.AutonRegistry;
 import frc.robot.commands.auton.utils.AutonUtils;
+import frc.robot.commands.auton.utils.PathRepository;
 import frc.robot.commands.drivebase.FieldCentricDrive;
 import frc.robot.subsystems.SwerveSubsystem;
 import frc.robot.subsystems.PoseNavigator;
+import frc.robot.subsystems.VisionUtils;
+import frc.robot.utils.ConfigRegistry;
+import frc.robot.utils.DriverInput;
+import frc.robot.utils.StartupOrchestrator;
 import swervelib.SwerveInputStream;
 
 /**
@@ -27,50 +37,98 @@ import swervelib.SwerveInputStream;
  */
 public class RobotContainer {
     // Subsystem(s)
-    public final SwerveSubsystem drivebase = new SwerveSubsystem(new File(Filesystem.getDeployDirectory(), "swerve"));
+    public final SwerveSubsystem drivebase;
 
     // Util(s)
-    public final AutonUtils autonUtils = new AutonUtils(drivebase);
-    public final PoseNavigator poseNavigator = new PoseNavigator(autonUtils);
+    public final AutonUtils autonUtils;
+    public final PoseNavigator poseNavigator;
+    public final AutonRegistry autonRegistry;
 
     // Controller(s)
     private final CommandXboxController driverController = new CommandXboxController(0);
 
+    /** Shaped driver sticks, shared by every drive mode. */
+    private final DriverInput driverInput = new DriverInput(() -> -driverController.getLeftY(),
+                                                            () -> -driverController.getLeftX(),
+                                                            () -> -driverController.getRightX());
+
     /** DriveToPoseCommand for Custom Dashboard. */
     private Command driveToPoseCommand = null;
 
     /** Swerve Drive Command with full field-centric mode and heading correction. */
-    FieldCentricDrive fieldCentricDrive = new FieldCentricDrive(drivebase,
-                                                                () -> -MathUtil.applyDeadband(driverController.getLeftY(),
-                                                                                                OperatorConstants.DEADBAND),
-                                                                () -> -MathUtil.applyDeadband(driverController.getLeftX(),
-                                                                                                OperatorConstants.DEADBAND),
-                                                                () -> MathUtil.applyDeadband(driverController.getRightX(),
-                                                                                                OperatorConstants.DEADBAND),
-                                                                driverController.getHID()::getYButtonPressed,
-                                                                driverController.getHID()::getAButtonPressed,
-                                                                driverController.getHID()::getXButtonPressed,
-                                                                driverController.getHID()::getBButtonPressed);
+    FieldCentricDrive fieldCentricDrive;
 
     /** Converts driver input into a field-relative ChassisSpeeds that is controller by angular velocity. */
-    SwerveInputStream driveAngularVelocity = SwerveInputStream.of(drivebase.getSwerveDrive(),
-                                                                  () -> -driverController.getLeftY(),
-                                                                  () -> -driverController.getLeftX())
-                                                                .withControllerRotationAxis(() -> -driverController.getRightX())
-                                                                .deadband(OperatorConstants.DEADBAND)
-                                                                .scaleTranslation(OperatorConstants.SCALE_TRANSLATION)
-                                                                .allianceRelativeControl(true);
+    SwerveInputStream driveAngularVelocity;
 
     /** Clones the angular velocity input stream and converts it to a robotRelative input stream. */
-    SwerveInputStream driveRobotOriented = driveAngularVelocity.copy().robotRelative(true)
-                                                                      .allianceRelativeControl(false);
+    SwerveInputStream driveRobotOriented;
 
-    /** The container for the robot. Contains subsystems, OI devices, and commands. */
+    /**
+     * The container for the robot. Contains subsystems, OI devices, and commands.
+     * <p>
+     * File loading runs in parallel through a {@link StartupOrchestrator}: configuration files, the AprilTag layout,
+     * the swerve JSON and path loading overlap. Subsystems register with the CommandScheduler and the
+     * TelemetryScheduler, so they are constructed on the main thread once the files are loaded, while the paths keep
+     * loading in the background.
+     */
     public RobotContainer() {
+        StartupOrchestrator startup = new StartupOrchestrator();
+
+        startup.step("AprilTag field layout", () -> VisionUtils.fieldLayout);
+        var config = startup.step("Config registry", ConfigRegistry::getInstance);
+        var swerveConfig = startup.step("Swerve JSON", () ->
+            SwerveSubsystem.parseConfiguration(new File(Filesystem.getDeployDirectory(), "swerve")));
+        var paths = startup.step("Path repository", () ->
+            new PathRepository(config.get().get().robotConfig), config);
+        startup.finish();
+
+        // The configuration was only read on the worker, its Alert and file watcher start on the main thread.
+        config.get().start();
+
+        drivebase = startup.onMainThread("Drivebase", () -> new SwerveSubsystem(swerveConfig.get()));
+        autonUtils = startup.onMainThread("Auton utils", () -> new AutonUtils(drivebase, paths.get()));
+        poseNavigator = startup.onMainThread("Pose navigator", () -> new PoseNavigator(autonUtils, drivebase));
+
+        // Routines are composed on the main thread, the registry only loads their paths in the background.
+        autonRegistry = new AutonRegistry(paths.get(), drivebase::isRedAlliance);
+        getAutons().forEach((name, factory) -> autonRegistry.register(name, () -> factory.apply(autonUtils)));
+        autonRegistry.setDefault("None");
+
+        fieldCentricDrive = new FieldCentricDrive(drivebase,
+                                                  driverInput::getX,
+                                                  driverInput::getY,
+                                                  driverInput::getRotation,
+                                                  driverController.getHID()::getYButtonPressed,
+                                                  driverController.getHID()::getAButtonPressed,
+                                                  driverController.getHID()::getXButtonPressed,
+                                                  driverController.getHID()::getBButtonPressed);
+
+        driveAngularVelocity = SwerveInputStream.of(drivebase.getSwerveDrive(),
+                                                    driverInput::getX,
+                                                    driverInput::getY)
+                                                  .withControllerRotationAxis(driverInput::getRotation)
+                                                  .allianceRelativeControl(true);
+
+        driveRobotOriented = driveAngularVelocity.copy().robotRelative(true)
+                                                        .allianceRelativeControl(false);
+
         configureBindings();
         DriverStation.silenceJoystickConnectionWarning(true);
     }
 
+    /**
+     * Returns every autonomous routine, shown in the chooser and checked by the
+     * {@link frc.robot.commands.auton.utils.PathValidator}.
+     * @return Factories of the routines by name, in chooser order.
+     */
+    public static Map<String, Function<AutonUtils, AutonCommand>> getAutons() {
+        Map<String, Function<AutonUtils, AutonCommand>> autons = new LinkedHashMap<>();
+        autons.put("None", utils -> new NoneAuton());
+        autons.put("Example", ExampleAuton::new);
+        return autons;
+    }
+
     private void configureBindings() {
         // Command driveRobotOrientedAngularVelocity = drivebase.driveFieldOriented(driveRobotOriented);
         Command driveFieldOrientedAngularVelocity = drivebase.driveFieldOriented(driveAngularVelocity);
@@ -79,6 +137,9 @@ public class RobotContainer {
         // (Condition) ? Return-On-True : Return-On-False.
         driverController.back().onTrue(Commands.runOnce(drivebase::zeroGyroWithAlliance));
 
+        // Runs the SysId drive routine from the dashboard and applies the fitted feedforward if valid.
+        SmartDashboard.putData("Characterize Drive Feedforward", drivebase.characterizeDriveFeedforwardCommand());
+
         driverController.leftTrigger()
             .whileTrue(Commands.runOnce(() -> {
                 driveToPoseCommand = drivebase.driveToPose(
@@ -94,11 +155,11 @@ public class RobotContainer {
     }
 
     /**
-     * Returns the autonomous command to run. This will be run in autonomous mode.
+     * Returns a fresh instance of the autonomous command selected on the dashboard, prepared while disabled.
      * @return The command to run in autonomous.
      */
     public Command getAutonomousCommand() {
-        return new NoneAuton();
+        return autonRegistry.getSelected();
     }
 
     public void setMotorBrake(boolean brake) {
@@ -0,0 +1,192 @@
+package frc.robot.commands.auton.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.commands.auton.NoneAuton;
+import frc.robot.utils.TelemetryScheduler;
+
+/**
+ * Registry of every autonomous routine, selected from the dashboard.
+ * <p>
+ * While the robot is disabled, every path of the {@link PathRepository} is loaded on a background thread, so composing
+ * a routine only wraps paths and trajectories that are already in memory. Routines are only composed on the main
+ * thread, since composing registers commands with the {@link edu.wpi.first.wpilibj2.command.CommandScheduler}.
+ * {@link #periodic()} prepares the selected routine for the current alliance once the paths are loaded, and again
+ * whenever the selection or the alliance changes or the prepared command was handed out, so every enable runs a fresh
+ * command without composing it in {@code autonomousInit}.
+ */
+public class AutonRegistry {
+    private final BooleanSupplier isRedAlliance;
+    private final SendableChooser<String> chooser = new SendableChooser<>();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /** Completes once every path has been parsed and its trajectories generated, successfully or not. */
+    private final CompletableFuture<Void> pathsLoaded;
+
+    private final TelemetryScheduler.BooleanChannel readyChannel;
+
+    /** Command prepared by {@link #periodic()}, null if composing failed, and the routine and alliance it is for. */
+    private AutonCommand prepared;
+    private Entry preparedEntry;
+    private boolean preparedForRed;
+
+    /**
+     * Constructor for the AutonRegistry class. Publishes the chooser to SmartDashboard under "Auton Chooser" and
+     * starts loading every path. Call from the main thread.
+     * @param pathRepository Repository of the paths the routines follow.
+     * @param isRedAlliance  Supplier of the current alliance color.
+     */
+    public AutonRegistry(PathRepository pathRepository, BooleanSupplier isRedAlliance) {
+        this.isRedAlliance = isRedAlliance;
+
+        // Paths with a compiled trajectory are only parsed on request, parse them now instead of on enable.
+        pathsLoaded = CompletableFuture.runAsync(() -> {
+            for (String pathName : pathRepository.getPathNames()) {
+                try {
+                    pathRepository.getPath(pathName);
+                } catch (RuntimeException e) {
+                    DriverStation.reportError("Failed to load path " + pathName + ": " + e.getMessage(), false);
+                }
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "AutonRegistry");
+            thread.setDaemon(true);
+            thread.start();
+        });
+
+        SmartDashboard.putData("Auton Chooser", chooser);
+        readyChannel = TelemetryScheduler.getInstance()
+            .getComponent("AutonRegistry", "SmartDashboard", TelemetryConstants.DASHBOARD_PERIOD)
+            .addBoolean("Auton Ready");
+    }
+
+    /**
+     * Registers a routine that does not depend on the alliance color.
+     * @param name    Name shown in the chooser.
+     * @param factory Composes the routine, called on the main thread.
+     * @return This registry, for chaining.
+     */
+    public AutonRegistry register(String name, Supplier<AutonCommand> factory) {
+        return add(name, isRed -> factory.get(), false);
+    }
+
+    /**
+     * Registers a routine composed for a specific alliance color.
+     * @param name    Name shown in the chooser.
+     * @param factory Composes the routine, given whether the robot is on the red alliance. Called on the main thread.
+     * @return This registry, for chaining.
+     */
+    public AutonRegistry registerPerAlliance(String name, Function<Boolean, AutonCommand> factory) {
+        return add(name, factory, true);
+    }
+
+    /**
+     * Selects a registered routine by default.
+     * @param name Name of the routine.
+     * @return This registry, for chaining.
+     */
+    public AutonRegistry setDefault(String name) {
+        if (!entries.containsKey(name)) {
+            throw new IllegalArgumentException("Auton not registered: " + name);
+        }
+        chooser.setDefaultOption(name, name);
+        return this;
+    }
+
+    /**
+     * Once the paths are loaded, prepares the selected routine for the current alliance when none is prepared, and
+     * publishes whether it is ready. Call from {@code disabledPeriodic}.
+     */
+    public void periodic() {
+        boolean isRed = isRedAlliance.getAsBoolean();
+        Entry selected = getSelectedEntry();
+
+        if (selected != null && pathsLoaded.isDone() && !isPrepared(selected, isRed)) {
+            prepare(selected, isRed);
+        }
+
+        readyChannel.set(selected != null && isPrepared(selected, isRed) && prepared != null);
+    }
+
+    /**
+     * Returns the command prepared for the selected routine and the current alliance, and hands it out so the next
+     * {@link #periodic()} prepares a fresh one. If none is prepared, such as on an enable right after boot, waits for
+     * the paths and composes it now.
+     * @return The selected autonomous command, or a {@link NoneAuton} if none is selected or the routine failed to
+     *         compose.
+     */
+    public AutonCommand getSelected() {
+        boolean isRed = isRedAlliance.getAsBoolean();
+        Entry selected = getSelectedEntry();
+        if (selected == null) {
+            DriverStation.reportWarning("No auton selected.", false);
+            return new NoneAuton();
+        }
+
+        if (!isPrepared(selected, isRed)) {
+            if (!pathsLoaded.isDone()) {
+                DriverStation.reportWarning("Auton " + selected.name + " enabled before its paths loaded, waiting.",
+                                            false);
+                pathsLoaded.join();
+            }
+            prepare(selected, isRed);
+        }
+
+        AutonCommand command = prepared != null ? prepared : new NoneAuton();
+        preparedEntry = null;
+        prepared = null;
+        return command;
+    }
+
+    /** Entry of the routine selected in the chooser, or null. */
+    private Entry getSelectedEntry() {
+        String selected = chooser.getSelected();
+        return selected != null ? entries.get(selected) : null;
+    }
+
+    /** Adds a routine to the chooser. */
+    private AutonRegistry add(String name, Function<Boolean, AutonCommand> factory, boolean allianceDependent) {
+        entries.put(name, new Entry(name, factory, allianceDependent));
+        chooser.addOption(name, name);
+        return this;
+    }
+
+    /** Whether the prepared command, or the failure to compose it, is for a routine and alliance. */
+    private boolean isPrepared(Entry entry, boolean isRed) {
+        return entry == preparedEntry && (!entry.allianceDependent || isRed == preparedForRed);
+    }
+
+    /** Composes a routine as the prepared command, reporting failures. Must run on the main thread. */
+    private void prepare(Entry entry, boolean isRed) {
+        preparedEntry = entry;
+        preparedForRed = isRed;
+        try {
+            prepared = entry.factory.apply(isRed);
+        } catch (RuntimeException e) {
+            prepared = null;
+            DriverStation.reportError("Failed to build auton " + entry.name + ": " + e.getMessage(), e.getStackTrace());
+        }
+    }
+
+    /** A registered routine. */
+    private static final class Entry {
+        private final String name;
+        private final Function<Boolean, AutonCommand> factory;
+        private final boolean allianceDependent;
+
+        private Entry(String name, Function<Boolean, AutonCommand> factory, boolean allianceDependent) {
+            this.name = name;
+            this.factory = factory;
+            this.allianceDependent = allianceDependent;
+        }
+    }
+}
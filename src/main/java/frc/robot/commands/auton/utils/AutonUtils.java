@@ -1,64 +1,97 @@
 package frc.robot.commands.auton.utils;
 
+import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.config.RobotConfig;
 import com.pathplanner.lib.path.PathPlannerPath;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import frc.robot.Constants.FieldConstants;
 import frc.robot.subsystems.SwerveSubsystem;
+import frc.robot.utils.ConfigRegistry;
 
 public class AutonUtils {
 
     /** SwerveSubsystem Object. */
     private SwerveSubsystem drivebase;
 
-    /** Constructor for AutonUtils. */
+    /** Preloaded paths and trajectories for both alliances. */
+    private final PathRepository pathRepository;
+
+    /** Constructor for AutonUtils. Starts preloading every path in the background. */
     public AutonUtils(SwerveSubsystem drivebase) {
+        this(drivebase, new PathRepository(ConfigRegistry.getInstance().get().robotConfig));
+    }
+
+    /**
+     * Constructor for AutonUtils, with paths that are already loading. Without a drivebase, such as in the
+     * {@link PathValidator}, the path commands are placeholders, so routines compose and list their poses.
+     * @param drivebase      The swerve drivebase subsystem, or null.
+     * @param pathRepository Repository preloading every path.
+     */
+    public AutonUtils(SwerveSubsystem drivebase, PathRepository pathRepository) {
         this.drivebase = drivebase;
+        this.pathRepository = pathRepository;
     }
 
     /**
-     * Command to reset the robot's odometry to initial pose, adjusted for the current
-     * alliance color by flipping it if necessary.
-     * @param choreoPath The PathPlannerPath containing the trajectory to use for
-     *                   resetting the robot's odometry.
-     * @return           A command that, when run, resets the robot's odometry to the
-     *                   initial pose of given path.
+     * Command to reset the robot's odometry to the initial pose of a path, flipped for the current alliance
+     * color if necessary.
+     * @param pathName The name of the path whose cached trajectory is used for resetting the robot's odometry.
+     * @return         A command that, when run, resets the robot's odometry to the
+     *                 initial pose of given path.
      */
-    public Command resetOdometry(PathPlannerPath path) {
+    public Command resetOdometry(String pathName) {
+        if (drivebase == null) {
+            return Commands.none();
+        }
         return drivebase.runOnce(
-            () -> {
-                RobotConfig config = getRobotConfig();
-
-                Pose2d pose = path
-                    .generateTrajectory(new ChassisSpeeds(), new Rotation2d(Math.PI), config)
-                    .getInitialPose();
-
-                if (drivebase.isRedAlliance()) {
-                    pose = flipFieldPose(pose);
-                }
-    
-                drivebase.resetOdometry(pose);
-        });
+            () -> drivebase.resetOdometry(pathRepository.getStartingPose(pathName, drivebase.isRedAlliance()))
+        );
     }
 
     /**
-     * Load the PathPlanner trajectory file to path.
+     * Load the PathPlanner trajectory file to path. Paths are preloaded by the {@link PathRepository}.
      * @param pathName Name of the path.
      * @return PathPlanner Path.
      */
     public PathPlannerPath loadPath(String pathName) {
-        try {
-            return PathPlannerPath.fromPathFile(pathName);
-        } catch (Exception e) {
-            // Handle exception, as needed.
-            e.printStackTrace();
-            throw new RuntimeException("Failed to load path: " + pathName, e);
+        return pathRepository.getPath(pathName);
+    }
+
+    /**
+     * Command to follow a path, using its compiled trajectory when one was deployed.
+     * @param pathName Name of the path.
+     * @return A command following the path, flipped for the current alliance color if necessary.
+     */
+    public Command followPath(String pathName) {
+        if (drivebase == null) {
+            return Commands.none();
         }
+        return pathRepository.getCompiledTrajectory(pathName)
+            .<Command>map(trajectory -> new FollowCompiledTrajectory(drivebase, trajectory))
+            .orElseGet(() -> AutoBuilder.followPath(loadPath(pathName)));
+    }
+
+    /**
+     * Get the starting pose of a path from its cached trajectory.
+     * @param pathName Name of the path.
+     * @param isRedAlliance Whether the pose should be flipped for the red alliance.
+     * @return Starting pose of the path.
+     */
+    public Pose2d getStartingPose(String pathName, boolean isRedAlliance) {
+        return pathRepository.getStartingPose(pathName, isRedAlliance);
+    }
+
+    /**
+     * Get the repository of preloaded paths and trajectories.
+     * @return The {@link PathRepository}.
+     */
+    public PathRepository getPathRepository() {
+        return pathRepository;
     }
 
     /**
@@ -89,18 +122,12 @@ public class AutonUtils {
     }
 
     /**
-     * Retrieves the robot configuration from Deploy Settings.
+     * Retrieves the robot configuration from Deploy Settings, loaded once by the {@link ConfigRegistry}.
      * @return The RobotConfig instance generated by PathPlanner.
      * @throws RuntimeException If failed to retrieve configuration.
      */
     public RobotConfig getRobotConfig() {
-        try {
-            return RobotConfig.fromGUISettings();
-        } catch (Exception e) {
-            System.err.println("Failed to retrieve RobotConfig from Deploy Settings.");
-            e.printStackTrace();
-            throw new RuntimeException("Error retrieving RobotConfig.", e);
-        }
+        return ConfigRegistry.getInstance().get().robotConfig;
     }
 
     /** Pose2d for Coral Station on bottom of blue alliance. */
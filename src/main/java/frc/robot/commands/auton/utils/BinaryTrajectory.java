@@ -0,0 +1,277 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import com.pathplanner.lib.util.DriveFeedforwards;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Time-sampled trajectory for both alliances, compiled at build time by {@link TrajectoryCompiler} and memory-mapped at
+ * runtime.
+ * <p>
+ * File layout, little-endian: a {@value #HEADER_BYTES} byte header ({@code magic, version, samplePeriod,
+ * sampleCount, moduleCount, sourceChecksum}) followed by the blue samples and then the red samples. Each sample holds
+ * {@value #FIELD_COUNT} floats plus an acceleration and a linear force per module. Samples are read straight from the
+ * mapped file, the file itself is never copied to the heap.
+ */
+public final class BinaryTrajectory {
+
+    /** File magic, "RATJ". */
+    public static final int MAGIC = 0x5241544A;
+
+    /** Format version, increment when the layout changes. */
+    public static final int VERSION = 1;
+
+    /** Size of the header, in bytes. */
+    public static final int HEADER_BYTES = 32;
+
+    /** Extension of compiled trajectory files. */
+    public static final String EXTENSION = ".traj";
+
+    /** Per-sample fields, as float offsets within a sample. */
+    public static final int TIME = 0, X = 1, Y = 2, ROTATION = 3, VX = 4, VY = 5, OMEGA = 6, LINEAR_VELOCITY = 7, HEADING = 8;
+
+    /** Number of per-sample fields before the module feedforwards. */
+    public static final int FIELD_COUNT = 9;
+
+    /** Mapped file contents. */
+    private final ByteBuffer buffer;
+
+    /** Time between two samples, in seconds. */
+    private final double samplePeriod;
+
+    /** Number of samples per alliance. */
+    private final int sampleCount;
+
+    /** Number of swerve modules. */
+    private final int moduleCount;
+
+    /** Size of a single sample, in bytes. */
+    private final int stride;
+
+    /** CRC32 of the {@code .path} file the trajectory was compiled from. */
+    private final int sourceChecksum;
+
+    /**
+     * Constructor for the BinaryTrajectory class.
+     * @param buffer Mapped file contents, positioned anywhere.
+     */
+    private BinaryTrajectory(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a compiled trajectory of version " + VERSION);
+        }
+        samplePeriod = buffer.getFloat(8);
+        sampleCount = buffer.getInt(12);
+        moduleCount = buffer.getInt(16);
+        sourceChecksum = buffer.getInt(20);
+        stride = (FIELD_COUNT + 2 * moduleCount) * Float.BYTES;
+
+        if (buffer.capacity() < HEADER_BYTES + 2L * sampleCount * stride) {
+            throw new IllegalArgumentException("Compiled trajectory is truncated");
+        }
+    }
+
+    /**
+     * Memory-maps a compiled trajectory file.
+     * @param file Compiled trajectory file.
+     * @return The mapped trajectory.
+     * @throws RuntimeException If the file could not be mapped or is not a compiled trajectory.
+     */
+    public static BinaryTrajectory load(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new BinaryTrajectory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load compiled trajectory: " + file, e);
+        }
+    }
+
+    /**
+     * Samples both alliance trajectories at a fixed period and writes them to a file.
+     * @param file         File to write.
+     * @param blue         Blue alliance trajectory.
+     * @param red          Red alliance trajectory, usually {@code blue.flip()}.
+     * @param samplePeriod Time between two samples, in seconds.
+     * @param moduleCount  Number of swerve modules.
+     * @param source       The {@code .path} file the trajectory was generated from.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(File file, PathPlannerTrajectory blue, PathPlannerTrajectory red, double samplePeriod,
+                             int moduleCount, File source) throws IOException {
+        int sampleCount = (int) Math.ceil(blue.getTotalTimeSeconds() / samplePeriod) + 1;
+        int stride = (FIELD_COUNT + 2 * moduleCount) * Float.BYTES;
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + 2 * sampleCount * stride).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putFloat((float) samplePeriod).putInt(sampleCount).putInt(moduleCount)
+           .putInt(checksum(source));
+        out.position(HEADER_BYTES);
+
+        for (PathPlannerTrajectory trajectory : new PathPlannerTrajectory[] {blue, red}) {
+            for (int i = 0; i < sampleCount; i++) {
+                double time = Math.min(i * samplePeriod, trajectory.getTotalTimeSeconds());
+                PathPlannerTrajectoryState state = trajectory.sample(time);
+
+                out.putFloat((float) time);
+                out.putFloat((float) state.pose.getX());
+                out.putFloat((float) state.pose.getY());
+                out.putFloat((float) state.pose.getRotation().getRadians());
+                out.putFloat((float) state.fieldSpeeds.vxMetersPerSecond);
+                out.putFloat((float) state.fieldSpeeds.vyMetersPerSecond);
+                out.putFloat((float) state.fieldSpeeds.omegaRadiansPerSecond);
+                out.putFloat((float) state.linearVelocity);
+                out.putFloat((float) state.heading.getRadians());
+                for (int m = 0; m < moduleCount; m++) {
+                    out.putFloat((float) state.feedforwards.accelerationsMPSSq()[m]);
+                    out.putFloat((float) state.feedforwards.linearForcesNewtons()[m]);
+                }
+            }
+        }
+
+        file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * CRC32 of a {@code .path} file, used to detect compiled trajectories that are out of date.
+     * @param source The {@code .path} file.
+     * @return The checksum.
+     * @throws IOException If the file could not be read.
+     */
+    public static int checksum(File source) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(source.toPath()));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Whether this trajectory was compiled from the current contents of a {@code .path} file.
+     * @param source The {@code .path} file.
+     * @return True if the checksums match.
+     */
+    public boolean isCompiledFrom(File source) {
+        try {
+            return checksum(source) == sourceChecksum;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Number of samples per alliance.
+     * @return Sample count.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Number of swerve modules the feedforwards were generated for.
+     * @return Module count.
+     */
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    /**
+     * Duration of the trajectory.
+     * @return Total time, in seconds.
+     */
+    public double getTotalTimeSeconds() {
+        return get(false, sampleCount - 1, TIME);
+    }
+
+    /**
+     * Reads a single field of a sample directly from the mapped file.
+     * @param isRedAlliance Whether to read the red alliance samples.
+     * @param sample        Sample index.
+     * @param field         Field offset, one of the field constants or {@code FIELD_COUNT + 2 * module (+ 1)}.
+     * @return The field value.
+     */
+    public double get(boolean isRedAlliance, int sample, int field) {
+        int base = HEADER_BYTES + ((isRedAlliance ? sampleCount : 0) + sample) * stride;
+        return buffer.getFloat(base + field * Float.BYTES);
+    }
+
+    /**
+     * Initial pose of the trajectory.
+     * @param isRedAlliance Whether to use the red alliance samples.
+     * @return The initial pose.
+     */
+    public Pose2d getInitialPose(boolean isRedAlliance) {
+        return new Pose2d(get(isRedAlliance, 0, X), get(isRedAlliance, 0, Y), new Rotation2d(get(isRedAlliance, 0, ROTATION)));
+    }
+
+    /**
+     * Final pose of the trajectory.
+     * @param isRedAlliance Whether to use the red alliance samples.
+     * @return The final pose.
+     */
+    public Pose2d getEndPose(boolean isRedAlliance) {
+        int last = sampleCount - 1;
+        return new Pose2d(get(isRedAlliance, last, X), get(isRedAlliance, last, Y), new Rotation2d(get(isRedAlliance, last, ROTATION)));
+    }
+
+    /**
+     * Interpolates the trajectory at a time into a reusable state, so it can be passed to PathPlanner controllers. The
+     * state speeds and feedforwards are written in place, the feedforwards must have been created for
+     * {@link #getModuleCount()} modules. WPILib geometry is immutable, so the pose and heading are new objects.
+     * @param isRedAlliance Whether to use the red alliance samples.
+     * @param time          Time since the start of the trajectory, in seconds.
+     * @param state         State to fill.
+     */
+    public void sample(boolean isRedAlliance, double time, PathPlannerTrajectoryState state) {
+        double index = MathUtil.clamp(time / samplePeriod, 0, sampleCount - 1);
+        int i0 = (int) index;
+        int i1 = Math.min(i0 + 1, sampleCount - 1);
+        double t = index - i0;
+
+        state.timeSeconds = time;
+        state.pose = new Pose2d(lerp(isRedAlliance, i0, i1, X, t),
+                                lerp(isRedAlliance, i0, i1, Y, t),
+                                new Rotation2d(angleLerp(isRedAlliance, i0, i1, ROTATION, t)));
+        ChassisSpeeds fieldSpeeds = state.fieldSpeeds;
+        fieldSpeeds.vxMetersPerSecond = lerp(isRedAlliance, i0, i1, VX, t);
+        fieldSpeeds.vyMetersPerSecond = lerp(isRedAlliance, i0, i1, VY, t);
+        fieldSpeeds.omegaRadiansPerSecond = lerp(isRedAlliance, i0, i1, OMEGA, t);
+        state.linearVelocity = lerp(isRedAlliance, i0, i1, LINEAR_VELOCITY, t);
+        state.heading = new Rotation2d(angleLerp(isRedAlliance, i0, i1, HEADING, t));
+
+        DriveFeedforwards feedforwards = state.feedforwards;
+        for (int m = 0; m < moduleCount; m++) {
+            feedforwards.accelerationsMPSSq()[m] = lerp(isRedAlliance, i0, i1, FIELD_COUNT + 2 * m, t);
+            feedforwards.linearForcesNewtons()[m] = lerp(isRedAlliance, i0, i1, FIELD_COUNT + 2 * m + 1, t);
+        }
+    }
+
+    /** Linear interpolation of a field between two samples. */
+    private double lerp(boolean isRedAlliance, int i0, int i1, int field, double t) {
+        double a = get(isRedAlliance, i0, field);
+        return a + (get(isRedAlliance, i1, field) - a) * t;
+    }
+
+    /** Shortest-path interpolation of an angle field between two samples. */
+    private double angleLerp(boolean isRedAlliance, int i0, int i1, int field, double t) {
+        double a = get(isRedAlliance, i0, field);
+        return a + MathUtil.angleModulus(get(isRedAlliance, i1, field) - a) * t;
+    }
+}
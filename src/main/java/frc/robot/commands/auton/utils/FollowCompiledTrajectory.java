@@ -0,0 +1,80 @@
+package frc.robot.commands.auton.utils;
+
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import com.pathplanner.lib.util.DriveFeedforwards;
+import com.pathplanner.lib.util.PathPlannerLogging;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.subsystems.SwerveSubsystem;
+
+/**
+ * Follows a {@link BinaryTrajectory} with the same {@link PPHolonomicDriveController} and drive output as
+ * {@link com.pathplanner.lib.auto.AutoBuilder}. Samples are read from the mapped file into a single reused state.
+ * <p>
+ * Unlike {@link com.pathplanner.lib.commands.FollowPathCommand}, the trajectory always starts from its first sample, so
+ * the robot must be at rest at the start of the path, as after {@link AutonUtils#resetOdometry(String)}. Only the
+ * current and target poses are sent to {@link PathPlannerLogging}, not the active path. Event markers are not
+ * triggered, so the {@link TrajectoryCompiler} does not compile paths that have any.
+ */
+public class FollowCompiledTrajectory extends Command {
+    private final SwerveSubsystem drivebase;
+    private final BinaryTrajectory trajectory;
+    private final PPHolonomicDriveController controller;
+    private final Timer timer = new Timer();
+
+    /** Target state, reused every loop. */
+    private final PathPlannerTrajectoryState targetState = new PathPlannerTrajectoryState();
+
+    /** Whether the red alliance samples are followed, latched when the command starts. */
+    private boolean isRedAlliance;
+
+    /**
+     * Constructor for the FollowCompiledTrajectory command.
+     * @param drivebase  The swerve drivebase subsystem.
+     * @param trajectory The compiled trajectory to follow.
+     */
+    public FollowCompiledTrajectory(SwerveSubsystem drivebase, BinaryTrajectory trajectory) {
+        this.drivebase = drivebase;
+        this.trajectory = trajectory;
+        this.controller = drivebase.getPathFollowingController();
+        targetState.fieldSpeeds = new ChassisSpeeds();
+        targetState.feedforwards = DriveFeedforwards.zeros(trajectory.getModuleCount());
+
+        addRequirements(drivebase);
+    }
+
+    @Override
+    public void initialize() {
+        isRedAlliance = drivebase.isRedAlliance();
+        controller.reset(drivebase.getPose(), drivebase.getRobotVelocity());
+        timer.restart();
+    }
+
+    @Override
+    public void execute() {
+        trajectory.sample(isRedAlliance, timer.get(), targetState);
+        Pose2d currentPose = drivebase.getPose();
+        PathPlannerLogging.logCurrentPose(currentPose);
+        PathPlannerLogging.logTargetPose(targetState.pose);
+
+        ChassisSpeeds speeds = controller.calculateRobotRelativeSpeeds(currentPose, targetState);
+        drivebase.drivePathFollowing(speeds, targetState.feedforwards);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        timer.stop();
+        if (!interrupted) {
+            drivebase.drive(new ChassisSpeeds());
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return timer.hasElapsed(trajectory.getTotalTimeSeconds());
+    }
+}
@@ -0,0 +1,278 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.pathplanner.lib.config.PIDConstants;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants;
+import frc.robot.Constants.AutonConstants;
+
+/**
+ * Offline tuner of the path following gains, run by the {@code tunePathGains} Gradle task.
+ * <p>
+ * Every path in the deploy directory is followed by a {@link PPHolonomicDriveController} driving a headless model of
+ * the drivetrain: module speed saturation, a first-order velocity lag of {@link Constants#LOOP_TIME}, a traction
+ * limited acceleration, wheel slip noise and an initial pose error. Candidate gains are evaluated in parallel on
+ * every core, first a grid of proportional gains and then derivative gains around the best one. The cost weighs the
+ * RMS translation and heading errors and the time to settle at the end of the path.
+ */
+public final class PathGainTuner {
+
+    /** Simulation period, in seconds. Matches the robot loop. */
+    private static final double DT = 0.02;
+
+    /** Time simulated after the end of the trajectory to measure settling, in seconds. */
+    private static final double SETTLE_WINDOW = 1.0;
+
+    /** Errors under which the robot is considered settled, in meters and radians. */
+    private static final double SETTLE_TRANSLATION = 0.02, SETTLE_ROTATION = Math.toRadians(1);
+
+    /** Standard deviation of the wheel slip added to the velocity every step, in meters per second. */
+    private static final double SLIP_NOISE = 0.05;
+
+    /** Maximum initial pose error, in meters and radians. */
+    private static final double INITIAL_TRANSLATION_ERROR = 0.05, INITIAL_ROTATION_ERROR = Math.toRadians(3);
+
+    /** Random seeds simulated per path and candidate. */
+    private static final int SEEDS = 8;
+
+    /** Cost of one radian of RMS heading error and of one second of settling, in meters of RMS translation error. */
+    private static final double ROTATION_WEIGHT = 0.5, SETTLE_WEIGHT = 0.1;
+
+    /** Proportional gains of the first search stage. */
+    private static final double[] P_GAINS = range(1.0, 12.0, 0.5);
+
+    /** Derivative gains of the second search stage. */
+    private static final double[] D_GAINS = range(0.0, 0.3, 0.05);
+
+    private final RobotConfig config;
+    private final List<String> pathNames = new ArrayList<>();
+    private final List<PathPlannerTrajectory> trajectories = new ArrayList<>();
+
+    /** Acceleration limits of the drivetrain model, in meters per second squared and radians per second squared. */
+    private final double maxAcceleration, maxAngularAcceleration;
+
+    /**
+     * Constructor for the PathGainTuner class. Generates the trajectory of every path.
+     * @param config RobotConfig of the drivebase.
+     */
+    public PathGainTuner(RobotConfig config) {
+        this.config = config;
+
+        double moduleRadius = 0;
+        for (Translation2d location : config.moduleLocations) {
+            moduleRadius = Math.max(moduleRadius, location.getNorm());
+        }
+        maxAcceleration = config.moduleConfig.wheelCOF * 9.81;
+        maxAngularAcceleration = maxAcceleration / moduleRadius;
+
+        File[] pathFiles = new File(Filesystem.getDeployDirectory(), "pathplanner/paths")
+            .listFiles((dir, name) -> name.endsWith(".path"));
+        if (pathFiles == null) {
+            throw new IllegalStateException("No PathPlanner paths found in " + Filesystem.getDeployDirectory());
+        }
+        Arrays.sort(pathFiles);
+        for (File file : pathFiles) {
+            String name = file.getName().substring(0, file.getName().length() - ".path".length());
+            try {
+                PathPlannerPath path = PathPlannerPath.fromPathFile(name);
+                pathNames.add(name);
+                trajectories.add(path.getIdealTrajectory(config)
+                    .orElseGet(() -> path.generateTrajectory(new ChassisSpeeds(), new Rotation2d(), config)));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to load path: " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Searches the gains and prints the best ones with their tracking error distributions.
+     * @param args Unused.
+     * @throws Exception If a simulation failed.
+     */
+    public static void main(String... args) throws Exception {
+        PathGainTuner tuner = new PathGainTuner(RobotConfig.fromGUISettings());
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Gains> candidates = new ArrayList<>();
+            for (double translationP : P_GAINS) {
+                for (double rotationP : P_GAINS) {
+                    candidates.add(new Gains(new PIDConstants(translationP, 0, 0), new PIDConstants(rotationP, 0, 0)));
+                }
+            }
+            Evaluation best = tuner.search(candidates, executor);
+
+            candidates.clear();
+            for (double translationD : D_GAINS) {
+                for (double rotationD : D_GAINS) {
+                    candidates.add(new Gains(new PIDConstants(best.gains.translation.kP(), 0, translationD),
+                                             new PIDConstants(best.gains.rotation.kP(), 0, rotationD)));
+                }
+            }
+            best = tuner.search(candidates, executor);
+
+            Evaluation current = tuner.evaluate(new Gains(AutonConstants.TRANSLATION_PID, AutonConstants.ANGLE_PID));
+            System.out.println("Current gains, cost " + String.format("%.4f", current.cost) + ":");
+            tuner.printDistributions(current);
+            System.out.println("Best gains, cost " + String.format("%.4f", best.cost) + ":");
+            tuner.printDistributions(best);
+            System.out.println(String.format("TRANSLATION_PID = new PIDConstants(%.2f, 0, %.2f);",
+                                             best.gains.translation.kP(), best.gains.translation.kD()));
+            System.out.println(String.format("ANGLE_PID = new PIDConstants(%.2f, 0, %.2f);",
+                                             best.gains.rotation.kP(), best.gains.rotation.kD()));
+        } finally {
+            executor.shutdown();
+        }
+        System.exit(0);
+    }
+
+    /** Evaluates every candidate in parallel and returns the one with the lowest cost. */
+    private Evaluation search(List<Gains> candidates, ExecutorService executor) throws Exception {
+        List<Future<Evaluation>> futures = new ArrayList<>();
+        for (Gains gains : candidates) {
+            futures.add(executor.submit(() -> evaluate(gains)));
+        }
+
+        List<Evaluation> evaluations = new ArrayList<>();
+        for (Future<Evaluation> future : futures) {
+            evaluations.add(future.get());
+        }
+        Evaluation best = evaluations.stream().min(Comparator.comparingDouble(evaluation -> evaluation.cost)).orElseThrow();
+        System.out.println(String.format("Searched %d candidates, best translation %s, rotation %s",
+                                         candidates.size(), format(best.gains.translation), format(best.gains.rotation)));
+        return best;
+    }
+
+    /** Simulates every path with every seed. */
+    private Evaluation evaluate(Gains gains) {
+        Run[][] runs = new Run[trajectories.size()][SEEDS];
+        double cost = 0;
+        for (int path = 0; path < trajectories.size(); path++) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                Run run = simulate(trajectories.get(path), gains, seed);
+                runs[path][seed] = run;
+                cost += run.rmsTranslation + ROTATION_WEIGHT * run.rmsRotation + SETTLE_WEIGHT * run.settleTime;
+            }
+        }
+        return new Evaluation(gains, cost / (trajectories.size() * SEEDS), runs);
+    }
+
+    /** Follows a trajectory with the drivetrain model. */
+    private Run simulate(PathPlannerTrajectory trajectory, Gains gains, long seed) {
+        PPHolonomicDriveController controller = new PPHolonomicDriveController(gains.translation, gains.rotation, DT);
+        SwerveDriveKinematics kinematics = new SwerveDriveKinematics(config.moduleLocations);
+        Random random = new Random(seed);
+
+        Pose2d start = trajectory.getInitialPose();
+        double x = start.getX() + (random.nextDouble() * 2 - 1) * INITIAL_TRANSLATION_ERROR;
+        double y = start.getY() + (random.nextDouble() * 2 - 1) * INITIAL_TRANSLATION_ERROR;
+        double heading = start.getRotation().getRadians() + (random.nextDouble() * 2 - 1) * INITIAL_ROTATION_ERROR;
+        double vx = 0, vy = 0, omega = 0;
+        controller.reset(new Pose2d(x, y, new Rotation2d(heading)), new ChassisSpeeds());
+
+        double totalTime = trajectory.getTotalTimeSeconds();
+        double squaredTranslation = 0, squaredRotation = 0, maxTranslation = 0, lastUnsettled = 0;
+        int samples = 0;
+        for (double time = 0; time <= totalTime + SETTLE_WINDOW; time += DT) {
+            Pose2d pose = new Pose2d(x, y, new Rotation2d(heading));
+            PathPlannerTrajectoryState target = trajectory.sample(time);
+
+            ChassisSpeeds command = ChassisSpeeds.discretize(controller.calculateRobotRelativeSpeeds(pose, target), DT);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(command);
+            SwerveDriveKinematics.desaturateWheelSpeeds(states, config.moduleConfig.maxDriveVelocityMPS);
+            ChassisSpeeds field = ChassisSpeeds.fromRobotRelativeSpeeds(kinematics.toChassisSpeeds(states), pose.getRotation());
+
+            // First-order velocity response, limited by traction, with wheel slip.
+            double ax = (field.vxMetersPerSecond - vx) / Constants.LOOP_TIME;
+            double ay = (field.vyMetersPerSecond - vy) / Constants.LOOP_TIME;
+            double scale = Math.min(1, maxAcceleration / Math.max(Math.hypot(ax, ay), 1e-9));
+            vx += ax * scale * DT + random.nextGaussian() * SLIP_NOISE;
+            vy += ay * scale * DT + random.nextGaussian() * SLIP_NOISE;
+            omega += MathUtil.clamp((field.omegaRadiansPerSecond - omega) / Constants.LOOP_TIME,
+                                    -maxAngularAcceleration, maxAngularAcceleration) * DT;
+            x += vx * DT;
+            y += vy * DT;
+            heading += omega * DT;
+
+            double translationError = Math.hypot(x - target.pose.getX(), y - target.pose.getY());
+            double rotationError = Math.abs(MathUtil.angleModulus(heading - target.pose.getRotation().getRadians()));
+            if (time <= totalTime) {
+                squaredTranslation += translationError * translationError;
+                squaredRotation += rotationError * rotationError;
+                maxTranslation = Math.max(maxTranslation, translationError);
+                samples++;
+            }
+            if (translationError > SETTLE_TRANSLATION || rotationError > SETTLE_ROTATION) {
+                lastUnsettled = time;
+            }
+        }
+
+        return new Run(Math.sqrt(squaredTranslation / samples), Math.sqrt(squaredRotation / samples), maxTranslation,
+                       Math.max(0, lastUnsettled + DT - totalTime));
+    }
+
+    /** Prints the tracking error distribution of every path across seeds. */
+    private void printDistributions(Evaluation evaluation) {
+        for (int path = 0; path < trajectories.size(); path++) {
+            Run[] runs = evaluation.runs[path];
+            double[] maxErrors = Arrays.stream(runs).mapToDouble(run -> run.maxTranslation).sorted().toArray();
+            double[] settleTimes = Arrays.stream(runs).mapToDouble(run -> run.settleTime).sorted().toArray();
+            double rmsRotation = Arrays.stream(runs).mapToDouble(run -> run.rmsRotation).max().orElse(0);
+            System.out.println(String.format(
+                "  %-12s max error p50 %5.1f cm  p95 %5.1f cm  worst %5.1f cm | heading RMS worst %4.1f deg | "
+                + "settle p50 %.2f s  worst %.2f s",
+                pathNames.get(path), percentile(maxErrors, 0.5) * 100, percentile(maxErrors, 0.95) * 100,
+                maxErrors[maxErrors.length - 1] * 100, Math.toDegrees(rmsRotation),
+                percentile(settleTimes, 0.5), settleTimes[settleTimes.length - 1]));
+        }
+    }
+
+    private static double percentile(double[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(fraction * (sorted.length - 1)))];
+    }
+
+    private static double[] range(double start, double end, double step) {
+        int count = (int) Math.round((end - start) / step) + 1;
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = start + i * step;
+        }
+        return values;
+    }
+
+    private static String format(PIDConstants constants) {
+        return String.format("(%.2f, %.2f, %.2f)", constants.kP(), constants.kI(), constants.kD());
+    }
+
+    /** Translation and rotation gains of one candidate. */
+    private record Gains(PIDConstants translation, PIDConstants rotation) {}
+
+    /** Tracking metrics of one simulated run. */
+    private record Run(double rmsTranslation, double rmsRotation, double maxTranslation, double settleTime) {}
+
+    /** Cost and runs of one candidate, runs indexed by path then seed. */
+    private record Evaluation(Gains gains, double cost, Run[][] runs) {}
+}
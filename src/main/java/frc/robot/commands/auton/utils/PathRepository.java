@@ -0,0 +1,220 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Loads every PathPlanner path in {@code deploy/pathplanner/paths} at startup and caches them by name, together with
+ * their trajectories for both alliances.
+ * <p>
+ * When {@code deploy/trajectories} holds an up to date {@link BinaryTrajectory} for a path, it is memory-mapped and
+ * nothing else is loaded until the path itself is requested. Otherwise paths are parsed and generated in parallel on
+ * background threads. The ideal trajectory is cached inside each {@link PathPlannerPath}, which is what
+ * {@link com.pathplanner.lib.commands.FollowPathCommand} uses when starting a path, so no JSON parsing or trajectory
+ * generation is left between enable and motion.
+ */
+public class PathRepository {
+
+    /** Number of loader threads, one per roboRIO core. */
+    private static final int LOADER_THREADS = 2;
+
+    /** Cached paths, keyed by file name without extension. */
+    private final Map<String, CompletableFuture<CachedPath>> paths = new HashMap<>();
+
+    /** Completes once every path has been loaded, successfully or not. */
+    private final CompletableFuture<Void> loaded;
+
+    /**
+     * Constructor for the PathRepository class. Scans the deploy directory and starts loading every path.
+     * @param config RobotConfig used to generate the trajectories.
+     */
+    public PathRepository(RobotConfig config) {
+        ExecutorService executor = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "PathRepository");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        File deploy = Filesystem.getDeployDirectory();
+        File[] pathFiles = new File(deploy, "pathplanner/paths").listFiles((dir, name) -> name.endsWith(".path"));
+
+        if (pathFiles != null) {
+            for (File file : pathFiles) {
+                String name = file.getName().substring(0, file.getName().length() - ".path".length());
+                File compiled = new File(deploy, "trajectories/" + name + BinaryTrajectory.EXTENSION);
+
+                paths.put(name, CompletableFuture.supplyAsync(() -> {
+                    if (compiled.isFile()) {
+                        BinaryTrajectory trajectory = BinaryTrajectory.load(compiled);
+                        if (trajectory.isCompiledFrom(file)) {
+                            return new CachedPath(name, config, trajectory);
+                        }
+                        System.err.println("Compiled trajectory is out of date, regenerating: " + name);
+                    }
+                    return new CachedPath(name, config);
+                }, executor));
+            }
+        }
+
+        loaded = CompletableFuture.allOf(paths.values().toArray(CompletableFuture[]::new))
+            .handle((result, error) -> null);
+        loaded.thenRun(executor::shutdown);
+    }
+
+    /**
+     * Whether every path has finished loading.
+     * @return True once loading is done.
+     */
+    public boolean isLoaded() {
+        return loaded.isDone();
+    }
+
+    /**
+     * Names of every path found in the deploy directory.
+     * @return Path names, without extension.
+     */
+    public Set<String> getPathNames() {
+        return paths.keySet();
+    }
+
+    /**
+     * Returns a cached path, waiting for it to finish loading if necessary. Paths with a compiled trajectory are
+     * parsed on first request.
+     * @param pathName Name of the path.
+     * @return PathPlanner Path.
+     * @throws RuntimeException If the path does not exist or failed to load.
+     */
+    public PathPlannerPath getPath(String pathName) {
+        return get(pathName).getPath();
+    }
+
+    /**
+     * Returns the generated trajectory of a path for an alliance. Paths with a compiled trajectory are generated on
+     * first request, prefer {@link #getCompiledTrajectory(String)} for those.
+     * @param pathName      Name of the path.
+     * @param isRedAlliance Whether the trajectory should be flipped for the red alliance.
+     * @return The generated trajectory.
+     * @throws RuntimeException If the path does not exist or failed to load.
+     */
+    public PathPlannerTrajectory getTrajectory(String pathName, boolean isRedAlliance) {
+        return get(pathName).getTrajectory(isRedAlliance);
+    }
+
+    /**
+     * Returns the compiled trajectory of a path, if an up to date one was deployed.
+     * @param pathName Name of the path.
+     * @return The memory-mapped trajectory, or empty.
+     * @throws RuntimeException If the path does not exist or failed to load.
+     */
+    public Optional<BinaryTrajectory> getCompiledTrajectory(String pathName) {
+        return Optional.ofNullable(get(pathName).compiled);
+    }
+
+    /**
+     * Returns the starting pose of a path for an alliance.
+     * @param pathName      Name of the path.
+     * @param isRedAlliance Whether the pose should be flipped for the red alliance.
+     * @return The initial pose of the trajectory.
+     * @throws RuntimeException If the path does not exist or failed to load.
+     */
+    public Pose2d getStartingPose(String pathName, boolean isRedAlliance) {
+        CachedPath cached = get(pathName);
+        if (cached.compiled != null) {
+            return cached.compiled.getInitialPose(isRedAlliance);
+        }
+        return cached.getTrajectory(isRedAlliance).getInitialPose();
+    }
+
+    /**
+     * Waits for a path to be loaded.
+     * @param pathName Name of the path.
+     * @return The cached path.
+     */
+    private CachedPath get(String pathName) {
+        CompletableFuture<CachedPath> future = paths.get(pathName);
+        if (future == null) {
+            throw new RuntimeException("Path not found in deploy directory: " + pathName);
+        }
+
+        try {
+            return future.join();
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to load path: " + pathName, e);
+        }
+    }
+
+    /** A path with its trajectories for both alliances. */
+    private static final class CachedPath {
+        private final String pathName;
+        private final RobotConfig config;
+        private final BinaryTrajectory compiled;
+        private PathPlannerPath path;
+        private PathPlannerTrajectory blueTrajectory;
+        private PathPlannerTrajectory redTrajectory;
+
+        /**
+         * Parses a path and generates its trajectories.
+         * @param pathName Name of the path.
+         * @param config   RobotConfig used to generate the trajectories.
+         */
+        private CachedPath(String pathName, RobotConfig config) {
+            this.pathName = pathName;
+            this.config = config;
+            this.compiled = null;
+            getTrajectory(false);
+        }
+
+        /**
+         * Wraps a compiled trajectory, the path is only parsed when requested.
+         * @param pathName Name of the path.
+         * @param config   RobotConfig used to generate the trajectories when requested.
+         * @param compiled Memory-mapped compiled trajectory.
+         */
+        private CachedPath(String pathName, RobotConfig config, BinaryTrajectory compiled) {
+            this.pathName = pathName;
+            this.config = config;
+            this.compiled = compiled;
+        }
+
+        /** Parses the path on first use. */
+        private synchronized PathPlannerPath getPath() {
+            if (path == null) {
+                try {
+                    path = PathPlannerPath.fromPathFile(pathName);
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to load path: " + pathName, e);
+                }
+            }
+            return path;
+        }
+
+        /** Generates the trajectories on first use. */
+        private synchronized PathPlannerTrajectory getTrajectory(boolean isRedAlliance) {
+            if (blueTrajectory == null) {
+                PathPlannerPath loadedPath = getPath();
+
+                // The ideal trajectory is cached by the path itself and reused when following, flipped when on red.
+                blueTrajectory = loadedPath.getIdealTrajectory(config)
+                    .orElseGet(() -> loadedPath.generateTrajectory(new ChassisSpeeds(), new Rotation2d(), config));
+                redTrajectory = blueTrajectory.flip();
+            }
+            return isRedAlliance ? redTrajectory : blueTrajectory;
+        }
+    }
+}
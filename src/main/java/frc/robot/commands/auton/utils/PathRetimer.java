@@ -0,0 +1,376 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.path.PathPoint;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants;
+
+/**
+ * Offline optimizer of the {@code .path} constraints, run by the {@code retimePaths} Gradle task.
+ * <p>
+ * For every path point it derives the fastest admissible speed from the robot itself instead of the global
+ * {@code defaultMaxVel} and {@code defaultMaxAccel}: per-module speed, including the share used by rotating, drive
+ * motor torque at the current limit and back-EMF, wheel friction and the tipping limit of {@link Constants#CHASSIS}.
+ * Lateral and tangential acceleration share the same friction circle. A forward-backward pass then gives the
+ * time-optimal velocity profile, which is written back as constraint zones of {@value #ZONE_LENGTH} waypoints.
+ * <p>
+ * Zones named with {@value #ZONE_PREFIX} are replaced on every run. Zones authored in PathPlanner are kept and take
+ * precedence. Point-towards zones are not modeled, keep a path retimed by hand if it uses them.
+ */
+public final class PathRetimer {
+
+    /** Fraction of every physical limit used, the rest is left to the path following controller. */
+    public static final double MARGIN = 0.9;
+
+    /** Length of a retimed constraint zone, in waypoint-relative units. */
+    public static final double ZONE_LENGTH = 0.25;
+
+    /** Name prefix of the zones written by the retimer. */
+    public static final String ZONE_PREFIX = "Retimed ";
+
+    /** Constraint values are rounded to this step so small profile changes do not rewrite the files. */
+    private static final double ROUNDING = 0.05;
+
+    private static final double GRAVITY = 9.81;
+
+    private final RobotConfig config;
+
+    /** Distance from the robot center to the furthest module, in meters. */
+    private final double moduleRadius;
+
+    /** Acceleration limit from wheel friction and tipping, in meters per second squared. */
+    private final double tractionLimit;
+
+    /**
+     * Constructor for the PathRetimer class.
+     * @param config RobotConfig of the drivebase.
+     */
+    public PathRetimer(RobotConfig config) {
+        this.config = config;
+
+        double radius = 0, halfTrack = Double.MAX_VALUE;
+        for (Translation2d location : config.moduleLocations) {
+            radius = Math.max(radius, location.getNorm());
+            halfTrack = Math.min(halfTrack, Math.min(Math.abs(location.getX()), Math.abs(location.getY())));
+        }
+        moduleRadius = radius;
+
+        // The robot tips once the inertial moment about the wheel contact line exceeds the restoring moment.
+        double tippingLimit = GRAVITY * halfTrack / Constants.CHASSIS.position.getZ();
+        tractionLimit = Math.min(config.moduleConfig.wheelCOF * GRAVITY, tippingLimit);
+    }
+
+    /**
+     * Retimes every path in the deploy directory.
+     * @param args {@code --dry-run} to only print the results.
+     * @throws Exception If a path could not be read or written.
+     */
+    public static void main(String... args) throws Exception {
+        boolean dryRun = Arrays.asList(args).contains("--dry-run");
+        PathRetimer retimer = new PathRetimer(RobotConfig.fromGUISettings());
+
+        File[] pathFiles = new File(Filesystem.getDeployDirectory(), "pathplanner/paths")
+            .listFiles((dir, name) -> name.endsWith(".path"));
+        if (pathFiles == null) {
+            throw new IllegalStateException("No PathPlanner paths found in " + Filesystem.getDeployDirectory());
+        }
+
+        for (File file : pathFiles) {
+            retimer.retime(file, !dryRun);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Computes the time-optimal constraint zones of a path and writes them to its file.
+     * @param file  The {@code .path} file.
+     * @param write Whether to write the file, or only print the result.
+     * @throws IOException If the file could not be read or written.
+     */
+    public void retime(File file, boolean write) throws IOException {
+        String name = file.getName().substring(0, file.getName().length() - ".path".length());
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode json = (ObjectNode) mapper.readTree(file);
+        List<PathPoint> points = PathPlannerPath.fromPathFile(name).getAllPathPoints();
+        int n = points.size();
+
+        double[] curvature = new double[n];
+        double[] headingRate = headingRates(json, points);
+        double[] speedLimit = new double[n];
+        double[] currentLimit = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            curvature[i] = curvature(points.get(i - 1).position, points.get(i).position, points.get(i + 1).position);
+        }
+        for (int i = 0; i < n; i++) {
+            speedLimit[i] = maxSpeed(curvature[i], headingRate[i]);
+            PathConstraints constraints = points.get(i).constraints;
+            currentLimit[i] = constraints != null ? Math.min(speedLimit[i], constraints.maxVelocityMPS()) : speedLimit[i];
+        }
+
+        double startVelocity = json.path("idealStartingState").path("velocity").asDouble(0);
+        double endVelocity = json.path("goalEndState").path("velocity").asDouble(0);
+        double[] before = profile(points, curvature, currentLimit, startVelocity, endVelocity, true);
+        double[] after = profile(points, curvature, speedLimit, startVelocity, endVelocity, false);
+
+        ArrayNode zones = zones(json, points, after);
+        System.out.println(String.format("%s: %.2f s -> %.2f s, %d zones", name,
+                                         totalTime(points, before), totalTime(points, after), zones.size()));
+        if (!write) {
+            return;
+        }
+
+        // Authored zones first: PathPlanner applies the first zone containing a point.
+        ArrayNode merged = mapper.createArrayNode();
+        for (JsonNode zone : json.withArray("constraintZones")) {
+            if (!zone.path("name").asText().startsWith(ZONE_PREFIX)) {
+                merged.add(zone);
+            }
+        }
+        merged.addAll(zones);
+        json.set("constraintZones", merged);
+
+        ObjectNode global = (ObjectNode) json.get("globalConstraints");
+        global.put("maxVelocity", roundDown(MARGIN * config.moduleConfig.maxDriveVelocityMPS));
+        global.put("maxAcceleration", roundDown(maxAcceleration(0)));
+        json.put("useDefaultConstraints", false);
+
+        mapper.writer(new PathPlannerPrettyPrinter()).writeValue(file, json);
+    }
+
+    /** Usable acceleration magnitude at a speed, limited by motor torque, wheel friction and tipping. */
+    private double maxAcceleration(double speed) {
+        var module = config.moduleConfig;
+        double wheelSpeed = speed / module.wheelRadiusMeters;
+        double current = Math.min(module.driveCurrentLimit, module.driveMotor.getCurrent(wheelSpeed, 12.0));
+        double torque = Math.max(0, module.driveMotor.getTorque(current) - module.torqueLoss);
+        double motorLimit = config.numModules * torque / module.wheelRadiusMeters / config.massKG;
+        return MARGIN * Math.min(tractionLimit, motorLimit);
+    }
+
+    /** Usable tangential acceleration at a speed and curvature, what the centripetal acceleration leaves. */
+    private double tangentialAcceleration(double speed, double curvature) {
+        double total = maxAcceleration(speed);
+        double centripetal = speed * speed * curvature;
+        return Math.sqrt(Math.max(0, total * total - centripetal * centripetal));
+    }
+
+    /**
+     * Highest speed at a point: modules share their speed between translation and rotation, and the centripetal
+     * acceleration must stay within the acceleration limit at that speed.
+     */
+    private double maxSpeed(double curvature, double headingRate) {
+        double high = MARGIN * config.moduleConfig.maxDriveVelocityMPS / (1 + moduleRadius * headingRate);
+        if (high * high * curvature <= maxAcceleration(high)) {
+            return high;
+        }
+        double low = 0;
+        for (int i = 0; i < 30; i++) {
+            double mid = (low + high) / 2;
+            if (mid * mid * curvature <= maxAcceleration(mid)) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Time-optimal velocity profile under the speed limits, forward pass for acceleration then backward pass for
+     * deceleration.
+     * @param constrained Whether the acceleration of the current point constraints also applies.
+     */
+    private double[] profile(List<PathPoint> points, double[] curvature, double[] limit, double startVelocity,
+                             double endVelocity, boolean constrained) {
+        int n = points.size();
+        double[] velocity = new double[n];
+        velocity[0] = Math.min(startVelocity, limit[0]);
+        for (int i = 1; i < n; i++) {
+            double ds = points.get(i).distanceAlongPath - points.get(i - 1).distanceAlongPath;
+            double a = acceleration(points.get(i - 1), velocity[i - 1], curvature[i - 1], constrained);
+            velocity[i] = Math.min(limit[i], Math.sqrt(velocity[i - 1] * velocity[i - 1] + 2 * a * ds));
+        }
+        velocity[n - 1] = Math.min(velocity[n - 1], endVelocity);
+        for (int i = n - 2; i >= 0; i--) {
+            double ds = points.get(i + 1).distanceAlongPath - points.get(i).distanceAlongPath;
+            double a = acceleration(points.get(i + 1), velocity[i + 1], curvature[i + 1], constrained);
+            velocity[i] = Math.min(velocity[i], Math.sqrt(velocity[i + 1] * velocity[i + 1] + 2 * a * ds));
+        }
+        return velocity;
+    }
+
+    /** Tangential acceleration at a point, optionally capped by the point constraints. */
+    private double acceleration(PathPoint point, double speed, double curvature, boolean constrained) {
+        double a = tangentialAcceleration(speed, curvature);
+        if (constrained && point.constraints != null) {
+            a = Math.min(a, point.constraints.maxAccelerationMPSSq());
+        }
+        return a;
+    }
+
+    /** Groups the profile into constraint zones, merging neighbors with the same constraints. */
+    private ArrayNode zones(ObjectNode json, List<PathPoint> points, double[] velocity) {
+        JsonNode global = json.get("globalConstraints");
+        double end = json.get("waypoints").size() - 1;
+        ArrayNode zones = new ObjectMapper().createArrayNode();
+
+        ObjectNode previous = null;
+        for (double start = 0; start < end - 1e-9; start += ZONE_LENGTH) {
+            double stop = Math.min(start + ZONE_LENGTH, end);
+            double maxVelocity = 0, maxAcceleration = 0;
+            for (int i = 0; i < points.size(); i++) {
+                double position = points.get(i).waypointRelativePos;
+                if (position >= start && position <= stop) {
+                    maxVelocity = Math.max(maxVelocity, velocity[i]);
+                    maxAcceleration = Math.max(maxAcceleration, maxAcceleration(velocity[i]));
+                }
+            }
+            maxVelocity = roundUp(maxVelocity);
+            maxAcceleration = roundDown(maxAcceleration);
+
+            if (previous != null
+                && previous.get("constraints").get("maxVelocity").asDouble() == maxVelocity
+                && previous.get("constraints").get("maxAcceleration").asDouble() == maxAcceleration) {
+                previous.put("maxWaypointRelativePos", stop);
+                continue;
+            }
+
+            ObjectNode zone = zones.addObject();
+            zone.put("name", ZONE_PREFIX + (zones.size()));
+            zone.put("minWaypointRelativePos", start);
+            zone.put("maxWaypointRelativePos", stop);
+            ObjectNode constraints = zone.putObject("constraints");
+            constraints.put("maxVelocity", maxVelocity);
+            constraints.put("maxAcceleration", maxAcceleration);
+            constraints.set("maxAngularVelocity", global.get("maxAngularVelocity"));
+            constraints.set("maxAngularAcceleration", global.get("maxAngularAcceleration"));
+            constraints.set("nominalVoltage", global.get("nominalVoltage"));
+            constraints.put("unlimited", false);
+            previous = zone;
+        }
+        return zones;
+    }
+
+    /**
+     * Heading change per meter at every point. The heading is interpolated linearly in distance between the starting
+     * state, the rotation targets and the goal end state, as the path follower does.
+     */
+    private static double[] headingRates(ObjectNode json, List<PathPoint> points) {
+        List<double[]> targets = new ArrayList<>();
+        targets.add(new double[] {0, json.path("idealStartingState").path("rotation").asDouble(0)});
+        for (JsonNode target : json.withArray("rotationTargets")) {
+            targets.add(new double[] {target.get("waypointRelativePos").asDouble(), target.get("rotationDegrees").asDouble()});
+        }
+        targets.add(new double[] {json.get("waypoints").size() - 1, json.path("goalEndState").path("rotation").asDouble(0)});
+        targets.sort((a, b) -> Double.compare(a[0], b[0]));
+
+        double[] rates = new double[points.size()];
+        for (int t = 0; t < targets.size() - 1; t++) {
+            double startDistance = distanceAt(points, targets.get(t)[0]);
+            double endDistance = distanceAt(points, targets.get(t + 1)[0]);
+            double change = Math.abs(MathUtil.angleModulus(Math.toRadians(targets.get(t + 1)[1] - targets.get(t)[1])));
+            double rate = endDistance > startDistance ? change / (endDistance - startDistance) : 0;
+            for (int i = 0; i < points.size(); i++) {
+                double position = points.get(i).waypointRelativePos;
+                if (position >= targets.get(t)[0] && position <= targets.get(t + 1)[0]) {
+                    rates[i] = Math.max(rates[i], rate);
+                }
+            }
+        }
+        return rates;
+    }
+
+    /** Distance along the path at a waypoint-relative position. */
+    private static double distanceAt(List<PathPoint> points, double waypointRelativePos) {
+        for (int i = 1; i < points.size(); i++) {
+            PathPoint a = points.get(i - 1), b = points.get(i);
+            if (b.waypointRelativePos >= waypointRelativePos) {
+                double span = b.waypointRelativePos - a.waypointRelativePos;
+                double t = span > 0 ? (waypointRelativePos - a.waypointRelativePos) / span : 0;
+                return a.distanceAlongPath + t * (b.distanceAlongPath - a.distanceAlongPath);
+            }
+        }
+        return points.get(points.size() - 1).distanceAlongPath;
+    }
+
+    /** Curvature of the circle through three points, in 1/meters. */
+    private static double curvature(Translation2d a, Translation2d b, Translation2d c) {
+        Translation2d ab = b.minus(a), bc = c.minus(b);
+        double cross = ab.getX() * bc.getY() - ab.getY() * bc.getX();
+        double denominator = ab.getNorm() * bc.getNorm() * c.minus(a).getNorm();
+        return denominator > 1e-9 ? 2 * Math.abs(cross) / denominator : 0;
+    }
+
+    /** Time to drive the profile, in seconds. */
+    private static double totalTime(List<PathPoint> points, double[] velocity) {
+        double time = 0;
+        for (int i = 1; i < points.size(); i++) {
+            double ds = points.get(i).distanceAlongPath - points.get(i - 1).distanceAlongPath;
+            time += 2 * ds / Math.max(velocity[i] + velocity[i - 1], 1e-6);
+        }
+        return time;
+    }
+
+    private static double roundUp(double value) {
+        return Math.ceil(value / ROUNDING) * ROUNDING;
+    }
+
+    private static double roundDown(double value) {
+        return Math.floor(value / ROUNDING) * ROUNDING;
+    }
+
+    /** Writes JSON the way PathPlanner does, so retimed files only differ by their constraints. */
+    private static final class PathPlannerPrettyPrinter extends DefaultPrettyPrinter {
+        private PathPlannerPrettyPrinter() {
+            DefaultIndenter indenter = new DefaultIndenter("  ", "\n");
+            indentObjectsWith(indenter);
+            indentArraysWith(indenter);
+        }
+
+        @Override
+        public DefaultPrettyPrinter createInstance() {
+            return new PathPlannerPrettyPrinter();
+        }
+
+        @Override
+        public void writeObjectFieldValueSeparator(JsonGenerator generator) throws IOException {
+            generator.writeRaw(": ");
+        }
+
+        @Override
+        public void writeEndArray(JsonGenerator generator, int nrOfValues) throws IOException {
+            _nesting--;
+            if (nrOfValues > 0) {
+                _arrayIndenter.writeIndentation(generator, _nesting);
+            }
+            generator.writeRaw(']');
+        }
+
+        @Override
+        public void writeEndObject(JsonGenerator generator, int nrOfEntries) throws IOException {
+            _nesting--;
+            if (nrOfEntries > 0) {
+                _objectIndenter.writeIndentation(generator, _nesting);
+            }
+            generator.writeRaw('}');
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.path.PathPoint;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import com.pathplanner.lib.util.FlippingUtil;
+
+import edu.wpi.first.hal.HAL;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants.AutonConstants;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.RobotContainer;
+import frc.robot.subsystems.NavigationGrid;
+import frc.robot.subsystems.PoseNavigator;
+
+/**
+ * Build-time entry point of the {@code validatePaths} Gradle task, run by hand.
+ * <p>
+ * Every path in {@code deploy/pathplanner/paths} is generated with the {@code settings.json} robot config like the
+ * {@link TrajectoryCompiler} does. Each trajectory is checked for the blue alliance and flipped for red. The robot
+ * footprint is swept along it every {@value #SAMPLE_PERIOD} s against an uninflated {@link NavigationGrid} of
+ * {@value #NODE_SIZE} m cells, and must stay on the field. The blue trajectory is also checked against the constraints of the
+ * path and the drive module speed. Every {@link PoseNavigator} target must leave its footprint clear and be reachable
+ * on the inflated grid the pathfinder plans on. Every {@link AutonCommand} of {@link RobotContainer#getAutons()} is
+ * composed without a drivebase and its {@link AutonCommand#getAllPathPoses()} checked for both alliances: consecutive
+ * poses, including across chained paths, must be at most {@value #MAX_CHAIN_GAP} m apart, and each must be on the
+ * field, outside the obstacles and near the field the pathfinder can reach.
+ * <p>
+ * A cell collides when its center is inside both an obstacle and the footprint shrunk by {@link #CONTACT_TOLERANCE},
+ * so bumpers may touch the field elements they score on. A reported collision is always real, overlaps smaller than a
+ * cell can be missed. The report is printed and written to the output file, and the task fails on any violation.
+ */
+public final class PathValidator {
+
+    /** Time between two swept samples, in seconds. A few centimeters at full speed. */
+    public static final double SAMPLE_PERIOD = 0.005;
+
+    /** Size of a cell of the uninflated grid, in meters. */
+    public static final double NODE_SIZE = 0.05;
+
+    /** Overlap allowed between the bumpers and the field, for bumper compression and the modeled geometry. */
+    public static final double CONTACT_TOLERANCE = Units.inchesToMeters(3);
+
+    /** Relative tolerance on the constraints, for the numerical error of the trajectory generation. */
+    public static final double CONSTRAINT_TOLERANCE = 0.02;
+
+    /** Farthest a target may be from a free cell, in meters. The pathfinder plans to the nearest free cell. */
+    public static final double MAX_TARGET_SNAP = 0.5;
+
+    /** Largest distance between two consecutive poses of a routine, in meters, a jump between chained paths. */
+    public static final double MAX_CHAIN_GAP = 0.25;
+
+    private final RobotConfig config;
+    private final SwerveDriveKinematics kinematics;
+
+    /** Robot bumper dimensions, in meters. */
+    private final double robotWidth, robotLength;
+
+    /** Obstacles themselves, at {@link #NODE_SIZE}. */
+    private final NavigationGrid obstacles;
+
+    /** Grid inflated for the robot, as the pathfinder plans on, and its 4-connected free regions. */
+    private final NavigationGrid inflated;
+    private final int[] regions;
+    private final int mainRegion;
+
+    /** Report lines and violations. */
+    private final List<String> report = new ArrayList<>();
+    private int violations;
+
+    /**
+     * Constructor for the PathValidator class.
+     * @param config      RobotConfig of the drivebase.
+     * @param robotWidth  Robot bumper width, in meters.
+     * @param robotLength Robot bumper length, in meters.
+     */
+    public PathValidator(RobotConfig config, double robotWidth, double robotLength) {
+        this.config = config;
+        this.kinematics = new SwerveDriveKinematics(config.moduleLocations);
+        this.robotWidth = robotWidth;
+        this.robotLength = robotLength;
+        this.obstacles = NavigationGrid.generate(0, 0, NODE_SIZE);
+        this.inflated = NavigationGrid.generate(robotWidth, robotLength);
+
+        // Label the free regions, the largest one is the field the robot drives on.
+        int cells = inflated.getColumns() * inflated.getRows();
+        regions = new int[cells];
+        int[] queue = new int[cells];
+        int largest = 0, largestSize = 0, region = 0;
+        for (int seed = 0; seed < cells; seed++) {
+            if (inflated.isBlocked(seed) || regions[seed] != 0) {
+                continue;
+            }
+            region++;
+            int head = 0, tail = 0;
+            queue[tail++] = seed;
+            regions[seed] = region;
+            while (head < tail) {
+                int cell = queue[head++];
+                int column = cell % inflated.getColumns(), row = cell / inflated.getColumns();
+                int[] neighbors = {column > 0 ? cell - 1 : -1,
+                                   column < inflated.getColumns() - 1 ? cell + 1 : -1,
+                                   row > 0 ? cell - inflated.getColumns() : -1,
+                                   row < inflated.getRows() - 1 ? cell + inflated.getColumns() : -1};
+                for (int neighbor : neighbors) {
+                    if (neighbor >= 0 && !inflated.isBlocked(neighbor) && regions[neighbor] == 0) {
+                        regions[neighbor] = region;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            if (tail > largestSize) {
+                largest = region;
+                largestSize = tail;
+            }
+        }
+        mainRegion = largest;
+    }
+
+    /**
+     * Validates every path and target.
+     * @param args Output file of the report.
+     * @throws Exception If a path or the settings could not be read, or the report could not be written.
+     */
+    public static void main(String... args) throws Exception {
+        // Composing the routines registers their commands with the CommandScheduler.
+        HAL.initialize(500, 0);
+        File output = new File(args[0]);
+        JsonNode settings = new ObjectMapper().readTree(new File(Filesystem.getDeployDirectory(), "pathplanner/settings.json"));
+        PathValidator validator = new PathValidator(RobotConfig.fromGUISettings(),
+                                                    settings.get("robotWidth").asDouble(),
+                                                    settings.get("robotLength").asDouble());
+
+        File[] pathFiles = new File(Filesystem.getDeployDirectory(), "pathplanner/paths")
+            .listFiles((dir, name) -> name.endsWith(".path"));
+        if (pathFiles == null) {
+            throw new IllegalStateException("No PathPlanner paths found in " + Filesystem.getDeployDirectory());
+        }
+        for (File file : pathFiles) {
+            validator.validatePath(file.getName().substring(0, file.getName().length() - ".path".length()));
+        }
+        validator.validateTargets();
+        validator.validateAutons(new AutonUtils(null, new PathRepository(RobotConfig.fromGUISettings())),
+                                 RobotContainer.getAutons());
+
+        List<String> report = validator.report;
+        report.add(validator.violations == 0 ? "All paths and targets are valid"
+                                             : validator.violations + " violation(s)");
+        output.getParentFile().mkdirs();
+        Files.write(output.toPath(), report);
+        report.forEach(System.out::println);
+        System.exit(validator.violations == 0 ? 0 : 1);
+    }
+
+    /**
+     * Sweeps the footprint along a path for both alliances, and checks its blue trajectory against the constraints.
+     * @param name Name of the path.
+     */
+    public void validatePath(String name) {
+        PathPlannerPath path = PathPlannerPath.fromPathFile(name);
+        PathPlannerTrajectory blue = path.getIdealTrajectory(config)
+            .orElseGet(() -> path.generateTrajectory(new ChassisSpeeds(), new Rotation2d(), config));
+        report.add(String.format("%s: %.2f s", name, blue.getTotalTimeSeconds()));
+
+        sweep(name + " (blue)", blue);
+        sweep(name + " (red)", blue.flip());
+        checkConstraints(name, path, blue);
+    }
+
+    /** Checks that every target of the {@link PoseNavigator} is clear and reachable, for both alliances. */
+    public void validateTargets() {
+        // Only the chute poses are read, the AutonUtils needs neither the drivebase nor the paths for them.
+        AutonUtils autonUtils = new AutonUtils(null, null);
+        int targets = 0;
+        for (boolean isRedAlliance : new boolean[] {false, true}) {
+            for (int targetID : PoseNavigator.getCandidateIDs(isRedAlliance)) {
+                Pose2d pose = PoseNavigator.getTargetPose(autonUtils, targetID, AutonConstants.DISTANCE_FROM_REEF,
+                                                          isRedAlliance);
+                String label = "Target " + targetID + (isRedAlliance ? " (red)" : " (blue)");
+                String collision = checkFootprint(pose);
+                if (collision != null) {
+                    fail(label + " " + collision + " at " + format(pose));
+                }
+
+                double snap = distanceToMainRegion(pose);
+                if (snap > MAX_TARGET_SNAP) {
+                    fail(String.format("%s is %.2f m from the field the pathfinder can reach, at %s", label, snap,
+                                       format(pose)));
+                }
+                targets++;
+            }
+        }
+        report.add(targets + " targets checked");
+    }
+
+    /**
+     * Checks the path poses of every routine for both alliances, so flipped and chained paths are covered.
+     * @param autonUtils AutonUtils without a drivebase, composing placeholder path commands.
+     * @param autons     Factories of the routines by name.
+     */
+    public void validateAutons(AutonUtils autonUtils, Map<String, Function<AutonUtils, AutonCommand>> autons) {
+        for (Map.Entry<String, Function<AutonUtils, AutonCommand>> auton : autons.entrySet()) {
+            List<Pose2d> poses = auton.getValue().apply(autonUtils).getAllPathPoses();
+            for (boolean isRedAlliance : new boolean[] {false, true}) {
+                String label = "Auton " + auton.getKey() + (isRedAlliance ? " (red)" : " (blue)");
+                Pose2d previous = null;
+                for (Pose2d blue : poses) {
+                    Pose2d pose = isRedAlliance ? FlippingUtil.flipFieldPose(blue) : blue;
+                    double gap = previous != null ? previous.getTranslation().getDistance(pose.getTranslation()) : 0;
+                    if (gap > MAX_CHAIN_GAP) {
+                        fail(String.format("%s jumps %.2f m from %s to %s", label, gap, format(previous),
+                                           format(pose)));
+                    }
+                    previous = pose;
+
+                    if (pose.getX() < 0 || pose.getY() < 0
+                        || pose.getX() > FieldConstants.FIELD_LENGTH || pose.getY() > FieldConstants.FIELD_WIDTH) {
+                        fail(label + " leaves the field at " + format(pose));
+                    } else if (obstacles.isBlocked(pose.getX(), pose.getY())) {
+                        fail(label + " crosses an obstacle at " + format(pose));
+                    } else if (distanceToMainRegion(pose) > MAX_TARGET_SNAP) {
+                        fail(String.format("%s is %.2f m from the field the pathfinder can reach, at %s", label,
+                                           distanceToMainRegion(pose), format(pose)));
+                    }
+                }
+            }
+            report.add(String.format("Auton %s: %d poses", auton.getKey(), poses.size()));
+        }
+    }
+
+    /** Sweeps the footprint along a trajectory, reporting each collision once with its time span. */
+    private void sweep(String label, PathPlannerTrajectory trajectory) {
+        double total = trajectory.getTotalTimeSeconds();
+        String collision = null;
+        double collisionStart = 0;
+        Pose2d collisionPose = null;
+        for (int i = 0; i <= Math.ceil(total / SAMPLE_PERIOD); i++) {
+            double time = Math.min(i * SAMPLE_PERIOD, total);
+            Pose2d pose = trajectory.sample(time).pose;
+            String hit = checkFootprint(pose);
+            if (hit != null && collision == null) {
+                collision = hit;
+                collisionStart = time;
+                collisionPose = pose;
+            } else if (hit == null && collision != null) {
+                fail(String.format("%s %s from %.2f s to %.2f s, first at %s", label, collision, collisionStart, time,
+                                   format(collisionPose)));
+                collision = null;
+            }
+        }
+        if (collision != null) {
+            fail(String.format("%s %s from %.2f s to the end, first at %s", label, collision, collisionStart,
+                               format(collisionPose)));
+        }
+    }
+
+    /**
+     * Checks the robot footprint at a pose, shrunk by the contact tolerance.
+     * @return Null if clear, otherwise what it collides with.
+     */
+    private String checkFootprint(Pose2d pose) {
+        double halfLength = robotLength / 2 - CONTACT_TOLERANCE, halfWidth = robotWidth / 2 - CONTACT_TOLERANCE;
+        double cos = pose.getRotation().getCos(), sin = pose.getRotation().getSin();
+        double x = pose.getX(), y = pose.getY();
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            double along = (corner & 1) == 0 ? halfLength : -halfLength;
+            double across = (corner & 2) == 0 ? halfWidth : -halfWidth;
+            double cornerX = x + along * cos - across * sin, cornerY = y + along * sin + across * cos;
+            if (cornerX < 0 || cornerY < 0
+                || cornerX > FieldConstants.FIELD_LENGTH || cornerY > FieldConstants.FIELD_WIDTH) {
+                return "leaves the field";
+            }
+            minX = Math.min(minX, cornerX);
+            maxX = Math.max(maxX, cornerX);
+            minY = Math.min(minY, cornerY);
+            maxY = Math.max(maxY, cornerY);
+        }
+
+        for (int row = obstacles.getRow(minY); row <= obstacles.getRow(maxY); row++) {
+            for (int column = obstacles.getColumn(minX); column <= obstacles.getColumn(maxX); column++) {
+                double dx = (column + 0.5) * NODE_SIZE - x, dy = (row + 0.5) * NODE_SIZE - y;
+                double along = dx * cos + dy * sin, across = -dx * sin + dy * cos;
+                if (Math.abs(along) <= halfLength && Math.abs(across) <= halfWidth
+                    && obstacles.isBlocked(row * obstacles.getColumns() + column)) {
+                    return "hits an obstacle";
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Distance from a pose to the nearest cell of the main free region of the inflated grid, in meters. */
+    private double distanceToMainRegion(Pose2d pose) {
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int cell = 0; cell < regions.length; cell++) {
+            if (regions[cell] == mainRegion) {
+                double cellX = (cell % inflated.getColumns() + 0.5) * inflated.getNodeSize();
+                double cellY = (cell / inflated.getColumns() + 0.5) * inflated.getNodeSize();
+                nearest = Math.min(nearest, Math.hypot(cellX - pose.getX(), cellY - pose.getY()));
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Checks the speed and angular velocity of a trajectory against the constraints of the nearest path point, and its
+     * module speeds against the drive. Reports the worst sample of each kind.
+     */
+    private void checkConstraints(String name, PathPlannerPath path, PathPlannerTrajectory trajectory) {
+        List<PathPoint> points = path.getAllPathPoints();
+        double maxModuleSpeed = config.moduleConfig.maxDriveVelocityMPS;
+        String[] kinds = {"speed", "angular velocity", "module speed"};
+        double[] worstRatio = new double[kinds.length], worstTime = new double[kinds.length];
+        double[] worstValue = new double[kinds.length], worstLimit = new double[kinds.length];
+
+        double total = trajectory.getTotalTimeSeconds();
+        for (int i = 0; i <= Math.ceil(total / SAMPLE_PERIOD); i++) {
+            double time = Math.min(i * SAMPLE_PERIOD, total);
+            PathPlannerTrajectoryState state = trajectory.sample(time);
+
+            PathConstraints constraints = path.getGlobalConstraints();
+            double nearest = Double.POSITIVE_INFINITY;
+            for (PathPoint point : points) {
+                double distance = point.position.getDistance(state.pose.getTranslation());
+                if (distance < nearest) {
+                    nearest = distance;
+                    constraints = point.constraints != null ? point.constraints : path.getGlobalConstraints();
+                }
+            }
+
+            ChassisSpeeds robotSpeeds = ChassisSpeeds.fromFieldRelativeSpeeds(state.fieldSpeeds, state.pose.getRotation());
+            double moduleSpeed = 0;
+            for (SwerveModuleState module : kinematics.toSwerveModuleStates(robotSpeeds)) {
+                moduleSpeed = Math.max(moduleSpeed, Math.abs(module.speedMetersPerSecond));
+            }
+
+            double[] values = {Math.hypot(state.fieldSpeeds.vxMetersPerSecond, state.fieldSpeeds.vyMetersPerSecond),
+                               Math.abs(state.fieldSpeeds.omegaRadiansPerSecond),
+                               moduleSpeed};
+            boolean unlimited = constraints.unlimited();
+            double[] limits = {unlimited ? Double.POSITIVE_INFINITY : constraints.maxVelocityMPS(),
+                               unlimited ? Double.POSITIVE_INFINITY : constraints.maxAngularVelocityRadPerSec(),
+                               maxModuleSpeed};
+            for (int kind = 0; kind < kinds.length; kind++) {
+                double ratio = values[kind] / limits[kind];
+                if (ratio > worstRatio[kind]) {
+                    worstRatio[kind] = ratio;
+                    worstTime[kind] = time;
+                    worstValue[kind] = values[kind];
+                    worstLimit[kind] = limits[kind];
+                }
+            }
+        }
+
+        for (int kind = 0; kind < kinds.length; kind++) {
+            if (worstRatio[kind] > 1 + CONSTRAINT_TOLERANCE) {
+                fail(String.format("%s exceeds its %s limit at %.2f s: %.2f over %.2f", name, kinds[kind],
+                                   worstTime[kind], worstValue[kind], worstLimit[kind]));
+            }
+        }
+    }
+
+    private void fail(String message) {
+        report.add("  FAIL " + message);
+        violations++;
+    }
+
+    private static String format(Pose2d pose) {
+        return String.format("(%.2f, %.2f, %.0f deg)", pose.getX(), pose.getY(), pose.getRotation().getDegrees());
+    }
+}
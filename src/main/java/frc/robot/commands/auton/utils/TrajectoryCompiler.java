@@ -0,0 +1,61 @@
+package frc.robot.commands.auton.utils;
+
+import java.io.File;
+
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Build-time entry point of the {@code compileTrajectories} Gradle task. Generates every path in
+ * {@code deploy/pathplanner/paths} with the {@code settings.json} robot config and writes them as
+ * {@link BinaryTrajectory} files for both alliances. Paths with event markers are not compiled, since
+ * {@link FollowCompiledTrajectory} does not trigger them, and are followed with PathPlanner instead.
+ */
+public final class TrajectoryCompiler {
+
+    /** Time between two compiled samples, in seconds. Matches the robot loop period. */
+    public static final double SAMPLE_PERIOD = 0.02;
+
+    private TrajectoryCompiler() {}
+
+    /**
+     * Compiles every path.
+     * @param args Output directory of the compiled trajectories.
+     * @throws Exception If a path could not be generated or written.
+     */
+    public static void main(String... args) throws Exception {
+        File outputDirectory = new File(args[0]);
+        RobotConfig config = RobotConfig.fromGUISettings();
+
+        File[] pathFiles = new File(Filesystem.getDeployDirectory(), "pathplanner/paths")
+            .listFiles((dir, name) -> name.endsWith(".path"));
+        if (pathFiles == null) {
+            throw new IllegalStateException("No PathPlanner paths found in " + Filesystem.getDeployDirectory());
+        }
+
+        for (File file : pathFiles) {
+            String name = file.getName().substring(0, file.getName().length() - ".path".length());
+            PathPlannerPath path = PathPlannerPath.fromPathFile(name);
+            File output = new File(outputDirectory, name + BinaryTrajectory.EXTENSION);
+
+            if (!path.getEventMarkers().isEmpty()) {
+                output.delete();
+                System.out.println("Skipped " + name + ": " + path.getEventMarkers().size() + " event marker(s)");
+                continue;
+            }
+
+            PathPlannerTrajectory blue = path.getIdealTrajectory(config)
+                .orElseGet(() -> path.generateTrajectory(new ChassisSpeeds(), new Rotation2d(), config));
+            BinaryTrajectory.write(output, blue, blue.flip(), SAMPLE_PERIOD, config.numModules, file);
+
+            System.out.println("Compiled " + name + ": " + String.format("%.2f", blue.getTotalTimeSeconds())
+                               + " s, " + output.length() + " bytes");
+        }
+        System.exit(0);
+    }
+}
@@ -8,7 +8,6 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj2.command.Command;
-import frc.robot.Constants.OperatorConstants;
 import frc.robot.subsystems.SwerveSubsystem;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
@@ -29,12 +28,13 @@ public class FieldCentricDrive extends Command {
      *
      * @param swerve        The swerve drivebase subsystem.
      * @param vX            DoubleSupplier that supplies the x-translation joystick input.  Should be in the range -1 to 1
-     *                      with deadband already accounted for.  Positive X is away from the alliance wall.
+     *                      and shaped by {@link frc.robot.utils.DriverInput}.  Positive X is away from the alliance wall.
      * @param vY            DoubleSupplier that supplies the y-translation joystick input.  Should be in the range -1 to 1
-     *                      with deadband already accounted for.  Positive Y is towards the left wall when looking through
-     *                      the driver station glass.
+     *                      and shaped by {@link frc.robot.utils.DriverInput}.  Positive Y is towards the left wall when
+     *                      looking through the driver station glass.
      * @param headingAdjust DoubleSupplier that supplies the component of the robot's heading angle that should be
-     *                      adjusted. Should range from -1 to 1 with deadband already accounted for.
+     *                      adjusted, positive counterclockwise. Should range from -1 to 1 and be shaped by
+     *                      {@link frc.robot.utils.DriverInput}.
      * @param lookAway      Face the robot towards the opposing alliance's wall in the same direction the driver is
      *                      facing
      * @param lookTowards   Face the robot towards the driver
@@ -96,16 +96,15 @@ public class FieldCentricDrive extends Command {
 
         ChassisSpeeds desiredSpeeds = swerve.getTargetSpeeds(vX.getAsDouble(), vY.getAsDouble(), headingX, headingY);
 
-        // Limit velocity to prevent tipping
+        // Tipping is prevented by the TipLimiter of the drivebase, on every drive command.
         Translation2d translation = SwerveController.getTranslation2d(desiredSpeeds);
-        // translation = SwerveMath.limitVelocity(translation, swerve.getFieldVelocity(), swerve.getPose(),
-        //                                        Constants.LOOP_TIME, Constants.ROBOT_MASS, List.of(Constants.CHASSIS),
-        //                                        swerve.getSwerveDriveConfiguration());
 
         // Make the robot move
         if (headingX == 0 && headingY == 0 && Math.abs(headingAdjust.getAsDouble()) > 0) {
             resetHeading = true;
-            swerve.drive(translation, (OperatorConstants.TURN_CONSTANT * -headingAdjust.getAsDouble()), true);
+            swerve.drive(translation,
+                         headingAdjust.getAsDouble() * swerve.getSwerveDrive().getMaximumChassisAngularVelocity(),
+                         true);
         } else {
             swerve.drive(translation, desiredSpeeds.omegaRadiansPerSecond, true);
         }
@@ -0,0 +1,657 @@
+package frc.robot.subsystems;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.pathfinding.Pathfinder;
+import com.pathplanner.lib.pathfinding.Pathfinding;
+
+import edu.wpi.first.math.Pair;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.AutonConstants;
+import frc.robot.utils.ParallelPeriodic;
+import frc.robot.utils.RobotState;
+
+/**
+ * Incremental PathPlanner {@link Pathfinder} over the {@link NavigationGrid}, using D* Lite.
+ * <p>
+ * The search runs backwards from the goal on the 8-connected grid. When the robot moves, only the heuristic offset of
+ * the queue changes. When dynamic obstacles move, only the cells whose blocked state changed and their neighbors are
+ * queued again, so the repair is limited to the part of the search the change affects instead of planning from
+ * scratch. Dynamic obstacles are kept per source: robots detected by vision, regions marked by the operator on the
+ * dashboard under {@value #MARKED_OBSTACLES_TOPIC}, and the obstacles given to {@link Pathfinding#setDynamicObstacles}.
+ * <p>
+ * Planning runs in the {@link #update()} task of the {@link ParallelPeriodic}, with at most
+ * {@link AutonConstants#PATHFINDING_EXPANSIONS_PER_LOOP} expansions per loop, resuming on the next loop when a repair
+ * does not fit. The search state is preallocated per cell, so a loop only allocates when a path is published. A new
+ * path is published for a new request, or when obstacles block the current one or open a shorter one.
+ */
+public final class DStarLitePathfinder implements Pathfinder {
+
+    /** Dashboard topic of the regions marked by the operator, as [x, y, radius, ...] in meters. */
+    public static final String MARKED_OBSTACLES_TOPIC = "MarkedObstacles";
+
+    /** Dynamic obstacle sources. */
+    public static final String VISION_SOURCE = "Vision", MARKED_SOURCE = "Marked", PATHPLANNER_SOURCE = "PathPlanner";
+
+    /** Column and row offsets of the 8 neighbors of a cell. */
+    private static final int[] COLUMN_OFFSETS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] ROW_OFFSETS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private static final double DIAGONAL_COST = Math.sqrt(2);
+
+    /** Primary keys closer than this are equal, since the same cost summed in another order differs in the last bits. */
+    private static final double KEY_TOLERANCE = 1e-9;
+
+    /** Navigation grid the dynamic obstacles are written to. */
+    private final NavigationGrid grid;
+
+    /** Robot state the path starts from. */
+    private final Supplier<RobotState> state;
+
+    private final int columns, cellCount;
+
+    /** Blocked cells as known to the search, synchronized with the grid when its overlay changes. */
+    private final long[] blocked;
+    private int overlayVersion;
+
+    /** Cost to the goal and its one-step lookahead of every cell, in cells. */
+    private final double[] g, rhs;
+
+    /** Priority queue of the inconsistent cells, a binary heap with the position of each cell, -1 when not queued. */
+    private final int[] heap, heapIndex;
+    private final double[] primaryKeys, secondaryKeys;
+    private int heapSize;
+
+    /** Accumulated heuristic offset from the start moves since the search was reset. */
+    private double keyModifier;
+
+    /** Start and goal cells of the search, -1 before the first request. */
+    private int startCell = -1, goalCell = -1;
+
+    /** Cells of the last extracted path, and of the published path. */
+    private final int[] pathCells, publishedCells;
+    private int publishedLength;
+
+    /** Waypoints of the published path, from the robot position to the goal position. */
+    private List<Translation2d> waypoints = List.of();
+
+    /** Goal of the current request, set by the path following command. */
+    private Translation2d goalPosition;
+
+    /** Whether the current request still needs a path, a repair is waiting to be checked, or a new path is ready. */
+    private boolean requested, repairPending, newPathAvailable;
+
+    /** Whether the path following command polled since the last update, so planning only runs while following. */
+    private boolean polled;
+
+    /** Whether the last update finished its repair within the expansion budget. */
+    private boolean converged;
+
+    /** Dynamic obstacles of each source, as [x, y, radius, ...] in meters. */
+    private final Map<String, double[]> sources = new LinkedHashMap<>();
+    private boolean sourcesChanged;
+
+    /** Subscriber for the operator marked regions. */
+    private final DoubleArraySubscriber markedObstaclesSubscriber;
+
+    /** Operator marked regions, written by the NetworkTables listener thread and taken by the next update. */
+    private final AtomicReference<double[]> markedObstacles = new AtomicReference<>();
+
+    /**
+     * Constructor for the DStarLitePathfinder class.
+     * @param grid  Navigation grid to plan on.
+     * @param state Supplier of the robot state the path starts from.
+     */
+    public DStarLitePathfinder(NavigationGrid grid, Supplier<RobotState> state) {
+        this.grid = grid;
+        this.state = state;
+        this.columns = grid.getColumns();
+        this.cellCount = grid.getColumns() * grid.getRows();
+
+        blocked = new long[(cellCount + 63) >>> 6];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (grid.isBlocked(cell)) {
+                blocked[cell >>> 6] |= 1L << cell;
+            }
+        }
+        overlayVersion = grid.getOverlayVersion();
+
+        g = new double[cellCount];
+        rhs = new double[cellCount];
+        heap = new int[cellCount];
+        heapIndex = new int[cellCount];
+        primaryKeys = new double[cellCount];
+        secondaryKeys = new double[cellCount];
+        pathCells = new int[cellCount];
+        publishedCells = new int[cellCount];
+
+        NetworkTableInstance inst = NetworkTableInstance.getDefault();
+
+        // The listener runs on the NetworkTables thread as soon as a new value arrives, including the current value.
+        markedObstaclesSubscriber = inst.getTable("SmartDashboard").getDoubleArrayTopic(MARKED_OBSTACLES_TOPIC)
+                                        .subscribe(new double[0]);
+        inst.addListener(
+            markedObstaclesSubscriber,
+            EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate),
+            event -> markedObstacles.set(event.valueData.value.getDoubleArray()));
+    }
+
+    /**
+     * Replaces the dynamic obstacles of a source. Call from the main thread, they are applied on the next update.
+     * @param source  Name of the source, such as {@link #VISION_SOURCE}.
+     * @param circles Obstacles as [x, y, radius, ...], in meters.
+     */
+    public void setObstacles(String source, double[] circles) {
+        if (!Arrays.equals(sources.get(source), circles)) {
+            sources.put(source, circles.clone());
+            sourcesChanged = true;
+        }
+    }
+
+    @Override
+    public boolean isNewPathAvailable() {
+        polled = true;
+        return newPathAvailable;
+    }
+
+    @Override
+    public PathPlannerPath getCurrentPath(PathConstraints constraints, GoalEndState goalEndState) {
+        newPathAvailable = false;
+        if (waypoints.size() < 2) {
+            return null;
+        }
+
+        // Each waypoint faces the direction of travel, the holonomic rotation comes from the goal end state.
+        List<Pose2d> poses = new ArrayList<>(waypoints.size());
+        for (int i = 0; i < waypoints.size(); i++) {
+            Translation2d point = waypoints.get(i);
+            Translation2d direction = i + 1 < waypoints.size() ? waypoints.get(i + 1).minus(point)
+                                                               : point.minus(waypoints.get(i - 1));
+            poses.add(new Pose2d(point, new Rotation2d(direction.getX(), direction.getY())));
+        }
+        return new PathPlannerPath(PathPlannerPath.waypointsFromPoses(poses), constraints, null, goalEndState);
+    }
+
+    @Override
+    public void setStartPosition(Translation2d startPosition) {
+        // The start follows the published robot state, a new start only marks a new request.
+        requested = true;
+        polled = true;
+    }
+
+    @Override
+    public void setGoalPosition(Translation2d goalPosition) {
+        this.goalPosition = goalPosition;
+        requested = true;
+        polled = true;
+    }
+
+    @Override
+    public void setDynamicObstacles(List<Pair<Translation2d, Translation2d>> obs, Translation2d currentRobotPos) {
+        // Boxes are kept as their circumscribed circles.
+        double[] circles = new double[obs.size() * 3];
+        for (int i = 0; i < obs.size(); i++) {
+            Translation2d first = obs.get(i).getFirst(), second = obs.get(i).getSecond();
+            circles[3 * i] = (first.getX() + second.getX()) / 2;
+            circles[3 * i + 1] = (first.getY() + second.getY()) / 2;
+            circles[3 * i + 2] = first.getDistance(second) / 2;
+        }
+        setObstacles(PATHPLANNER_SOURCE, circles);
+    }
+
+    /**
+     * Applies the dynamic obstacles, repairs the search and publishes a new path when needed. Run once per loop by the
+     * {@link ParallelPeriodic}, after the robot state is published.
+     */
+    void update() {
+        double[] marked = markedObstacles.getAndSet(null);
+        if (marked != null) {
+            setObstacles(MARKED_SOURCE, marked);
+        }
+        if (sourcesChanged) {
+            sourcesChanged = false;
+            grid.clearDynamicObstacles();
+            for (double[] circles : sources.values()) {
+                for (int i = 0; i + 2 < circles.length; i += 3) {
+                    grid.addDynamicObstacle(circles[i], circles[i + 1], circles[i + 2]);
+                }
+            }
+        }
+        if (grid.getOverlayVersion() != overlayVersion) {
+            overlayVersion = grid.getOverlayVersion();
+            repairPending |= synchronizeBlocked();
+        }
+
+        boolean following = polled;
+        polled = false;
+        if (goalPosition == null || !following) {
+            return;
+        }
+
+        Translation2d position = state.get().pose.getTranslation();
+        int start = findNearestFree(grid.getCell(position.getX(), position.getY()));
+        int goal = findNearestFree(grid.getCell(goalPosition.getX(), goalPosition.getY()));
+        if (start < 0 || goal < 0) {
+            return;
+        }
+        if (goal != goalCell) {
+            reset(start, goal);
+        } else if (start != startCell) {
+            keyModifier += heuristic(startCell, start);
+            startCell = start;
+        }
+
+        converged = computeShortestPath();
+        if (!converged) {
+            // Out of expansions for this loop, the repair resumes on the next one.
+            return;
+        }
+        if (g[startCell] == Double.POSITIVE_INFINITY) {
+            if (requested) {
+                DriverStation.reportWarning("No path to " + goalPosition + " around the obstacles", false);
+                requested = false;
+            }
+            return;
+        }
+
+        if (requested || repairPending && isPublishedPathWorse()) {
+            publish(position);
+            requested = false;
+        }
+        repairPending = false;
+    }
+
+    /**
+     * Whether the last update converged, so {@link #getStartCost()} is the shortest path cost. For tests.
+     * @return True if the search finished its repair in the last update.
+     */
+    boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Start and goal cells of the search, snapped to the nearest free cells. For tests.
+     * @return The cells, -1 before the first request.
+     */
+    int getStartCell() {
+        return startCell;
+    }
+
+    int getGoalCell() {
+        return goalCell;
+    }
+
+    /**
+     * Cost of the shortest path from the start cell to the goal cell found by the search. For tests.
+     * @return The cost in cells, infinite when there is no path.
+     */
+    double getStartCost() {
+        return g[startCell];
+    }
+
+    /**
+     * Copies the blocked cells of the grid and queues the cells next to every change.
+     * @return Whether any cell changed.
+     */
+    private boolean synchronizeBlocked() {
+        boolean changed = false;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (grid.isBlocked(cell) != isBlocked(cell)) {
+                blocked[cell >>> 6] ^= 1L << cell;
+                changed = true;
+                if (goalCell >= 0) {
+                    // Every edge through the cell changed, including the diagonals it cuts the corner of.
+                    updateVertex(cell);
+                    for (int direction = 0; direction < 8; direction++) {
+                        int neighbor = getNeighbor(cell, direction);
+                        if (neighbor >= 0) {
+                            updateVertex(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /** Clears the search and starts it from a new goal. */
+    private void reset(int start, int goal) {
+        Arrays.fill(g, Double.POSITIVE_INFINITY);
+        Arrays.fill(rhs, Double.POSITIVE_INFINITY);
+        Arrays.fill(heapIndex, -1);
+        heapSize = 0;
+        keyModifier = 0;
+        startCell = start;
+        goalCell = goal;
+        rhs[goal] = 0;
+        insert(goal);
+    }
+
+    /**
+     * Expands cells until the start is consistent, within the expansion budget of a loop.
+     * @return True if the search converged, false if it ran out of expansions.
+     */
+    private boolean computeShortestPath() {
+        int expansions = 0;
+        while (heapSize > 0 && (isBeforeStart(heap[0]) || rhs[startCell] != g[startCell])) {
+            if (expansions++ >= AutonConstants.PATHFINDING_EXPANSIONS_PER_LOOP) {
+                return false;
+            }
+
+            int cell = heap[0];
+            double primary = primaryKey(cell), secondary = secondaryKey(cell);
+            if (compareKeys(primaryKeys[cell], secondaryKeys[cell], primary, secondary) < 0) {
+                primaryKeys[cell] = primary;
+                secondaryKeys[cell] = secondary;
+                siftDown(0);
+            } else if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+                remove(cell);
+                updateNeighbors(cell);
+            } else {
+                g[cell] = Double.POSITIVE_INFINITY;
+                updateVertex(cell);
+                updateNeighbors(cell);
+            }
+        }
+        return true;
+    }
+
+    /** Updates every neighbor of a cell. */
+    private void updateNeighbors(int cell) {
+        for (int direction = 0; direction < 8; direction++) {
+            int neighbor = getNeighbor(cell, direction);
+            if (neighbor >= 0) {
+                updateVertex(neighbor);
+            }
+        }
+    }
+
+    /** Recomputes the lookahead of a cell and queues it if it is inconsistent. */
+    private void updateVertex(int cell) {
+        if (cell != goalCell) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbor = getNeighbor(cell, direction);
+                if (neighbor >= 0) {
+                    best = Math.min(best, getCost(cell, direction) + g[neighbor]);
+                }
+            }
+            rhs[cell] = best;
+        }
+
+        if (g[cell] != rhs[cell]) {
+            if (heapIndex[cell] >= 0) {
+                primaryKeys[cell] = primaryKey(cell);
+                secondaryKeys[cell] = secondaryKey(cell);
+                siftUp(heapIndex[cell]);
+                siftDown(heapIndex[cell]);
+            } else {
+                insert(cell);
+            }
+        } else if (heapIndex[cell] >= 0) {
+            remove(cell);
+        }
+    }
+
+    /**
+     * Checks the published path against the repaired search.
+     * @return True if the rest of the published path is blocked, or the repaired path is shorter by more than
+     *         {@link AutonConstants#PATHFINDING_REPLAN_THRESHOLD}.
+     */
+    private boolean isPublishedPathWorse() {
+        if (publishedLength == 0) {
+            return true;
+        }
+
+        int nearest = 0;
+        for (int i = 1; i < publishedLength; i++) {
+            if (heuristic(startCell, publishedCells[i]) < heuristic(startCell, publishedCells[nearest])) {
+                nearest = i;
+            }
+        }
+        double remaining = heuristic(startCell, publishedCells[nearest]);
+        for (int i = nearest; i < publishedLength; i++) {
+            if (isBlocked(publishedCells[i])) {
+                return true;
+            }
+            if (i + 1 < publishedLength) {
+                remaining += heuristic(publishedCells[i], publishedCells[i + 1]);
+            }
+        }
+        return g[startCell] < remaining - AutonConstants.PATHFINDING_REPLAN_THRESHOLD / grid.getNodeSize();
+    }
+
+    /** Extracts the path from the start and publishes it, shortened to the cells that break the line of sight. */
+    private void publish(Translation2d position) {
+        int length = 0;
+        int cell = startCell;
+        pathCells[length++] = cell;
+        while (cell != goalCell && length < cellCount) {
+            int next = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbor = getNeighbor(cell, direction);
+                if (neighbor >= 0 && getCost(cell, direction) + g[neighbor] < best) {
+                    best = getCost(cell, direction) + g[neighbor];
+                    next = neighbor;
+                }
+            }
+            if (next < 0) {
+                return;
+            }
+            cell = next;
+            pathCells[length++] = cell;
+        }
+        System.arraycopy(pathCells, 0, publishedCells, 0, length);
+        publishedLength = length;
+
+        List<Translation2d> points = new ArrayList<>();
+        points.add(position);
+        Translation2d anchor = position;
+        int anchorIndex = 0;
+        while (anchorIndex < length - 1) {
+            // Farthest cell of the path in line of sight, or the next one when none is, such as from a blocked start.
+            int next = length - 1;
+            while (next > anchorIndex + 1 && !hasLineOfSight(anchor, getCenter(pathCells[next]))) {
+                next--;
+            }
+            anchor = getCenter(pathCells[next]);
+            anchorIndex = next;
+            points.add(anchor);
+        }
+
+        // The goal cell stands for the requested goal position.
+        if (points.size() > 1) {
+            points.remove(points.size() - 1);
+        }
+        points.add(goalPosition);
+        for (int i = points.size() - 2; i >= 0 && points.size() > 2; i--) {
+            if (points.get(i).getDistance(points.get(i + 1)) < 0.01) {
+                // Keep the robot position and the goal position.
+                points.remove(i + 1 == points.size() - 1 ? i : i + 1);
+            }
+        }
+        waypoints = points;
+        newPathAvailable = true;
+    }
+
+    /** Whether the straight line between two positions only crosses free cells, sampled every half cell. */
+    private boolean hasLineOfSight(Translation2d from, Translation2d to) {
+        double distance = from.getDistance(to);
+        int samples = (int) Math.ceil(distance / (grid.getNodeSize() / 2));
+        for (int i = 1; i <= samples; i++) {
+            double t = (double) i / samples;
+            double x = from.getX() + t * (to.getX() - from.getX());
+            double y = from.getY() + t * (to.getY() - from.getY());
+            if (isBlocked(grid.getCell(x, y))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the free cell nearest to a cell, searching square rings around it.
+     * @return The cell itself if free, the nearest free cell, or -1 if every cell is blocked.
+     */
+    private int findNearestFree(int cell) {
+        if (!isBlocked(cell)) {
+            return cell;
+        }
+        int column = cell % columns, row = cell / columns;
+        for (int radius = 1; radius < Math.max(columns, grid.getRows()); radius++) {
+            int nearest = -1;
+            int nearestDistance = Integer.MAX_VALUE;
+            for (int rowOffset = -radius; rowOffset <= radius; rowOffset++) {
+                for (int columnOffset = -radius; columnOffset <= radius; columnOffset++) {
+                    int c = column + columnOffset, r = row + rowOffset;
+                    if (Math.max(Math.abs(columnOffset), Math.abs(rowOffset)) != radius
+                        || c < 0 || r < 0 || c >= columns || r >= grid.getRows()) {
+                        continue;
+                    }
+                    int distance = columnOffset * columnOffset + rowOffset * rowOffset;
+                    if (!isBlocked(r * columns + c) && distance < nearestDistance) {
+                        nearest = r * columns + c;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+            if (nearest >= 0) {
+                return nearest;
+            }
+        }
+        return -1;
+    }
+
+    /** Neighbor of a cell in a direction, or -1 outside the grid. */
+    private int getNeighbor(int cell, int direction) {
+        int column = cell % columns + COLUMN_OFFSETS[direction];
+        int row = cell / columns + ROW_OFFSETS[direction];
+        if (column < 0 || row < 0 || column >= columns || row >= grid.getRows()) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    /** Cost of the edge from a cell in a direction, in cells. Infinite through blocked cells or cut corners. */
+    private double getCost(int cell, int direction) {
+        int neighbor = getNeighbor(cell, direction);
+        if (isBlocked(cell) || isBlocked(neighbor)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ((direction & 1) == 1) {
+            if (isBlocked(cell + COLUMN_OFFSETS[direction]) || isBlocked(cell + ROW_OFFSETS[direction] * columns)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return DIAGONAL_COST;
+        }
+        return 1;
+    }
+
+    /** Octile distance between two cells, in cells. */
+    private double heuristic(int from, int to) {
+        int dx = Math.abs(from % columns - to % columns), dy = Math.abs(from / columns - to / columns);
+        return Math.max(dx, dy) + (DIAGONAL_COST - 1) * Math.min(dx, dy);
+    }
+
+    private double primaryKey(int cell) {
+        return Math.min(g[cell], rhs[cell]) + heuristic(startCell, cell) + keyModifier;
+    }
+
+    private double secondaryKey(int cell) {
+        return Math.min(g[cell], rhs[cell]);
+    }
+
+    private static int compareKeys(double primaryA, double secondaryA, double primaryB, double secondaryB) {
+        if (Math.abs(primaryA - primaryB) > KEY_TOLERANCE) {
+            return Double.compare(primaryA, primaryB);
+        }
+        return Double.compare(secondaryA, secondaryB);
+    }
+
+    private boolean isBlocked(int cell) {
+        return (blocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private Translation2d getCenter(int cell) {
+        return new Translation2d((cell % columns + 0.5) * grid.getNodeSize(), (cell / columns + 0.5) * grid.getNodeSize());
+    }
+
+    /** Queues a cell with its current key. */
+    private void insert(int cell) {
+        primaryKeys[cell] = primaryKey(cell);
+        secondaryKeys[cell] = secondaryKey(cell);
+        heap[heapSize] = cell;
+        heapIndex[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /** Removes a queued cell. */
+    private void remove(int cell) {
+        int index = heapIndex[cell];
+        heapIndex[cell] = -1;
+        if (--heapSize > index) {
+            int moved = heap[heapSize];
+            heap[index] = moved;
+            heapIndex[moved] = index;
+            siftUp(index);
+            siftDown(heapIndex[moved]);
+        }
+    }
+
+    /** Whether the queued key of a cell is before the current key of the start. */
+    private boolean isBeforeStart(int cell) {
+        return compareKeys(primaryKeys[cell], secondaryKeys[cell], primaryKey(startCell), secondaryKey(startCell)) < 0;
+    }
+
+    private boolean isBefore(int a, int b) {
+        return compareKeys(primaryKeys[a], secondaryKeys[a], primaryKeys[b], secondaryKeys[b]) < 0;
+    }
+
+    private void siftUp(int index) {
+        int cell = heap[index];
+        while (index > 0 && isBefore(cell, heap[(index - 1) >>> 1])) {
+            int parent = (index - 1) >>> 1;
+            heap[index] = heap[parent];
+            heapIndex[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = cell;
+        heapIndex[cell] = index;
+    }
+
+    private void siftDown(int index) {
+        int cell = heap[index];
+        while (2 * index + 1 < heapSize) {
+            int child = 2 * index + 1;
+            if (child + 1 < heapSize && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], cell)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = cell;
+        heapIndex[cell] = index;
+    }
+}
@@ -0,0 +1,352 @@
+package frc.robot.subsystems;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.Constants.FieldConstants;
+
+/**
+ * Navigation grid of the field, with the cells the robot center cannot occupy without hitting an obstacle.
+ * <p>
+ * The static field is a packed bitset, one bit per cell in row-major order, generated by
+ * {@link NavigationGridCompiler} at build time from the field geometry of {@link FieldConstants}, inflated by the
+ * robot footprint at any heading. A dynamic overlay, such as a robot seen by vision, is kept in a second bitset of the
+ * same layout and inflated the same way. Each lookup is a shift and a mask over both layers, with no allocation.
+ * <p>
+ * File layout, little-endian: a {@value #HEADER_BYTES} byte header ({@code magic, version, columns, rows, nodeSize,
+ * robotWidth, robotLength, geometryVersion}) followed by the static bitset as longs. The overlay is written by the
+ * {@link DStarLitePathfinder} task, other periodic tasks must declare {@link SwerveSubsystem#NAVIGATION_OVERLAY} to read it.
+ */
+public final class NavigationGrid {
+
+    /** File magic, "RANG". */
+    public static final int MAGIC = 0x52414E47;
+
+    /** Format version, increment when the layout changes. */
+    public static final int VERSION = 1;
+
+    /** Version of the field geometry, increment when the obstacles change so compiled grids are regenerated. */
+    public static final int GEOMETRY_VERSION = 1;
+
+    /** Size of the header, in bytes. */
+    public static final int HEADER_BYTES = 32;
+
+    /** Extension of compiled navigation grid files. */
+    public static final String EXTENSION = ".navgrid";
+
+    /** Number of columns (X) and rows (Y) of the grid. */
+    private final int columns, rows;
+
+    /** Size of a single grid cell, in meters. */
+    private final double nodeSize;
+
+    /** Robot bumper dimensions the grid is inflated for, in meters. */
+    private final double robotWidth, robotLength;
+
+    /** Distance from the robot center to its farthest bumper corner, in meters. */
+    private final double inflation;
+
+    /** Static and dynamic obstacle bits, indexed by cell. */
+    private final long[] staticCells, overlayCells;
+
+    /** Incremented on every overlay change, so planners can tell when to update. */
+    private int overlayVersion;
+
+    /**
+     * Constructor for the NavigationGrid class.
+     * @param columns     Number of columns (X).
+     * @param rows        Number of rows (Y).
+     * @param nodeSize    Size of a single grid cell, in meters.
+     * @param robotWidth  Robot bumper width, in meters.
+     * @param robotLength Robot bumper length, in meters.
+     * @param staticCells Static obstacle bits, indexed by cell.
+     */
+    private NavigationGrid(int columns, int rows, double nodeSize, double robotWidth, double robotLength,
+                           long[] staticCells) {
+        this.columns = columns;
+        this.rows = rows;
+        this.nodeSize = nodeSize;
+        this.robotWidth = robotWidth;
+        this.robotLength = robotLength;
+        this.inflation = Math.hypot(robotWidth, robotLength) / 2;
+        this.staticCells = staticCells;
+        this.overlayCells = new long[staticCells.length];
+    }
+
+    /**
+     * Generates the grid of the field from the geometry of {@link FieldConstants}. A cell is blocked when a robot
+     * centered on it, at any heading, would overlap an obstacle or leave the field.
+     * @param robotWidth  Robot bumper width, in meters.
+     * @param robotLength Robot bumper length, in meters.
+     * @return The generated grid.
+     */
+    public static NavigationGrid generate(double robotWidth, double robotLength) {
+        return generate(robotWidth, robotLength, FieldConstants.NAV_GRID_NODE_SIZE);
+    }
+
+    /**
+     * Generates the grid of the field at another resolution, such as an uninflated fine grid to check footprints.
+     * @param robotWidth  Robot bumper width, in meters, 0 for the obstacles themselves.
+     * @param robotLength Robot bumper length, in meters, 0 for the obstacles themselves.
+     * @param nodeSize    Size of a single grid cell, in meters.
+     * @return The generated grid.
+     */
+    public static NavigationGrid generate(double robotWidth, double robotLength, double nodeSize) {
+        int columns = (int) Math.ceil(FieldConstants.FIELD_LENGTH / nodeSize);
+        int rows = (int) Math.ceil(FieldConstants.FIELD_WIDTH / nodeSize);
+        NavigationGrid grid = new NavigationGrid(columns, rows, nodeSize, robotWidth, robotLength,
+                                                 new long[(columns * rows + 63) >>> 6]);
+
+        List<double[]> obstacles = createObstacles();
+        double radius = grid.inflation;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double x = (column + 0.5) * nodeSize;
+                double y = (row + 0.5) * nodeSize;
+                boolean blocked = x < radius || y < radius
+                                  || x > FieldConstants.FIELD_LENGTH - radius || y > FieldConstants.FIELD_WIDTH - radius;
+                for (int i = 0; i < obstacles.size() && !blocked; i++) {
+                    blocked = distanceToPolygon(obstacles.get(i), x, y) <= radius;
+                }
+                if (blocked) {
+                    set(grid.staticCells, row * columns + column);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Loads a compiled grid, or generates it if the file is missing or was compiled for another robot or geometry.
+     * @param file        Compiled grid file, usually {@code deploy/navgrid/field.navgrid}.
+     * @param robotWidth  Robot bumper width, in meters.
+     * @param robotLength Robot bumper length, in meters.
+     * @return The grid.
+     */
+    public static NavigationGrid load(File file, double robotWidth, double robotLength) {
+        if (file.isFile()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {}
+                buffer.flip();
+
+                if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getInt(28) == GEOMETRY_VERSION
+                    && buffer.getFloat(16) == (float) FieldConstants.NAV_GRID_NODE_SIZE
+                    && buffer.getFloat(20) == (float) robotWidth && buffer.getFloat(24) == (float) robotLength) {
+                    int columns = buffer.getInt(8);
+                    int rows = buffer.getInt(12);
+                    long[] cells = new long[(columns * rows + 63) >>> 6];
+                    buffer.position(HEADER_BYTES);
+                    buffer.asLongBuffer().get(cells);
+                    return new NavigationGrid(columns, rows, FieldConstants.NAV_GRID_NODE_SIZE, robotWidth, robotLength,
+                                              cells);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        System.out.println("Navigation grid " + file + " is missing or out of date, generating it");
+        return generate(robotWidth, robotLength);
+    }
+
+    /**
+     * Writes the static layer of the grid to a file.
+     * @param file File to write.
+     * @throws IOException If the file could not be written.
+     */
+    public void write(File file) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + staticCells.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(columns).putInt(rows).putFloat((float) nodeSize)
+           .putFloat((float) robotWidth).putFloat((float) robotLength).putInt(GEOMETRY_VERSION);
+        for (long word : staticCells) {
+            out.putLong(word);
+        }
+
+        file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Whether a cell is blocked by the static field or the dynamic overlay.
+     * @param cell Cell index, {@code row * columns + column}.
+     * @return True if the robot center cannot occupy the cell.
+     */
+    public boolean isBlocked(int cell) {
+        return ((staticCells[cell >>> 6] | overlayCells[cell >>> 6]) & (1L << cell)) != 0;
+    }
+
+    /**
+     * Whether a cell is blocked by the static field, ignoring the dynamic overlay.
+     * @param cell Cell index, {@code row * columns + column}.
+     * @return True if the robot center cannot occupy the cell.
+     */
+    public boolean isStaticBlocked(int cell) {
+        return (staticCells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Whether the cell containing a field position is blocked.
+     * @param x X position, in meters.
+     * @param y Y position, in meters.
+     * @return True if the robot center cannot occupy the cell.
+     */
+    public boolean isBlocked(double x, double y) {
+        return isBlocked(getCell(x, y));
+    }
+
+    /**
+     * Blocks the cells a robot center cannot occupy without hitting a round dynamic obstacle, in the overlay.
+     * @param x      X position of the obstacle, in meters.
+     * @param y      Y position of the obstacle, in meters.
+     * @param radius Radius of the obstacle, in meters.
+     */
+    public void addDynamicObstacle(double x, double y, double radius) {
+        double reach = radius + inflation;
+        int minColumn = getColumn(x - reach), maxColumn = getColumn(x + reach);
+        int minRow = getRow(y - reach), maxRow = getRow(y + reach);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                if (Math.hypot((column + 0.5) * nodeSize - x, (row + 0.5) * nodeSize - y) <= reach) {
+                    set(overlayCells, row * columns + column);
+                }
+            }
+        }
+        overlayVersion++;
+    }
+
+    /** Removes every dynamic obstacle from the overlay. */
+    public void clearDynamicObstacles() {
+        Arrays.fill(overlayCells, 0L);
+        overlayVersion++;
+    }
+
+    /**
+     * Returns the overlay version, incremented every time the dynamic obstacles change.
+     * @return The overlay version.
+     */
+    public int getOverlayVersion() {
+        return overlayVersion;
+    }
+
+    /**
+     * Returns the cell containing a field position, clamped to the grid.
+     * @param x X position, in meters.
+     * @param y Y position, in meters.
+     * @return Cell index, {@code row * columns + column}.
+     */
+    public int getCell(double x, double y) {
+        return getRow(y) * columns + getColumn(x);
+    }
+
+    /**
+     * Returns the column containing an X position, clamped to the grid.
+     * @param x X position, in meters.
+     * @return The column.
+     */
+    public int getColumn(double x) {
+        return MathUtil.clamp((int) (x / nodeSize), 0, columns - 1);
+    }
+
+    /**
+     * Returns the row containing a Y position, clamped to the grid.
+     * @param y Y position, in meters.
+     * @return The row.
+     */
+    public int getRow(double y) {
+        return MathUtil.clamp((int) (y / nodeSize), 0, rows - 1);
+    }
+
+    /**
+     * Returns the number of columns (X) of the grid.
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows (Y) of the grid.
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the size of a single grid cell.
+     * @return The node size, in meters.
+     */
+    public double getNodeSize() {
+        return nodeSize;
+    }
+
+    /** Sets the bit of a cell. */
+    private static void set(long[] cells, int cell) {
+        cells[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Creates the obstacle polygons of the field as flat [x0, y0, x1, y1, ...] arrays, counterclockwise: the reefs of
+     * both alliances, the barge support and the four coral stations.
+     */
+    private static List<double[]> createObstacles() {
+        List<double[]> obstacles = new ArrayList<>();
+        for (double[] reef : new double[][] {FieldConstants.BLUE_REEF_POSE, FieldConstants.RED_REEF_POSE}) {
+            // The flat faces point along the field axis, so the vertices are 30 degrees off it.
+            double circumradius = FieldConstants.REEF_APOTHEM / Math.cos(Math.PI / 6);
+            double[] hexagon = new double[12];
+            for (int i = 0; i < 6; i++) {
+                double angle = Math.PI / 6 + i * Math.PI / 3;
+                hexagon[2 * i] = reef[0] + circumradius * Math.cos(angle);
+                hexagon[2 * i + 1] = reef[1] + circumradius * Math.sin(angle);
+            }
+            obstacles.add(hexagon);
+        }
+
+        double centerX = FieldConstants.FIELD_LENGTH / 2, centerY = FieldConstants.FIELD_WIDTH / 2;
+        double halfX = FieldConstants.BARGE_SUPPORT_HALF_SIZE[0], halfY = FieldConstants.BARGE_SUPPORT_HALF_SIZE[1];
+        obstacles.add(new double[] {centerX - halfX, centerY - halfY, centerX + halfX, centerY - halfY,
+                                    centerX + halfX, centerY + halfY, centerX - halfX, centerY + halfY});
+
+        double length = FieldConstants.CORAL_STATION_LENGTH, width = FieldConstants.CORAL_STATION_WIDTH;
+        double fieldX = FieldConstants.FIELD_LENGTH, fieldY = FieldConstants.FIELD_WIDTH;
+        obstacles.add(new double[] {0, 0, length, 0, 0, width});
+        obstacles.add(new double[] {0, fieldY, 0, fieldY - width, length, fieldY});
+        obstacles.add(new double[] {fieldX, 0, fieldX, width, fieldX - length, 0});
+        obstacles.add(new double[] {fieldX, fieldY, fieldX - length, fieldY, fieldX, fieldY - width});
+        return obstacles;
+    }
+
+    /** Distance from a point to a polygon, 0 inside it. */
+    private static double distanceToPolygon(double[] polygon, double x, double y) {
+        boolean inside = false;
+        double distance = Double.POSITIVE_INFINITY;
+        int vertices = polygon.length / 2;
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            double xi = polygon[2 * i], yi = polygon[2 * i + 1];
+            double xj = polygon[2 * j], yj = polygon[2 * j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+
+            double dx = xj - xi, dy = yj - yi;
+            double t = MathUtil.clamp(((x - xi) * dx + (y - yi) * dy) / (dx * dx + dy * dy), 0, 1);
+            distance = Math.min(distance, Math.hypot(x - (xi + t * dx), y - (yi + t * dy)));
+        }
+        return inside ? 0 : distance;
+    }
+}
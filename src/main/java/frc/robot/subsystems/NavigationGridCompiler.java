@@ -0,0 +1,41 @@
+package frc.robot.subsystems;
+
+import java.io.File;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Build-time entry point of the {@code compileNavigationGrid} Gradle task. Generates the {@link NavigationGrid} of the
+ * field for the {@code robotWidth} and {@code robotLength} of the PathPlanner {@code settings.json}, and writes it to
+ * the deploy directory.
+ */
+public final class NavigationGridCompiler {
+
+    private NavigationGridCompiler() {}
+
+    /**
+     * Compiles the navigation grid.
+     * @param args Output file of the compiled grid.
+     * @throws Exception If the settings could not be read or the grid could not be written.
+     */
+    public static void main(String... args) throws Exception {
+        File output = new File(args[0]);
+        JsonNode settings = new ObjectMapper().readTree(new File(Filesystem.getDeployDirectory(), "pathplanner/settings.json"));
+        double robotWidth = settings.get("robotWidth").asDouble();
+        double robotLength = settings.get("robotLength").asDouble();
+
+        NavigationGrid grid = NavigationGrid.generate(robotWidth, robotLength);
+        grid.write(output);
+
+        int blocked = 0;
+        for (int cell = 0; cell < grid.getColumns() * grid.getRows(); cell++) {
+            blocked += grid.isStaticBlocked(cell) ? 1 : 0;
+        }
+        System.out.println("Compiled navigation grid: " + grid.getColumns() + " x " + grid.getRows() + " cells, "
+                           + blocked + " blocked, " + output.length() + " bytes");
+        System.exit(0);
+    }
+}
@@ -1,63 +1,147 @@
 package frc.robot.subsystems;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTableEvent;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.Notifier;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.AutonConstants;
 import frc.robot.Constants.FieldConstants;
+import frc.robot.Constants.TelemetryConstants;
 import frc.robot.commands.auton.utils.AutonUtils;
+import frc.robot.utils.JitWarmup;
+import frc.robot.utils.LoopWatchdog;
+import frc.robot.utils.ParallelPeriodic;
+import frc.robot.utils.TelemetryScheduler;
 
 public class PoseNavigator extends SubsystemBase {
 
+    /** Target ID that selects the target with the shortest estimated travel time. */
+    public static final int AUTO_SELECT_TARGET_ID = 0;
+
+    /** Target IDs considered by auto-select on blue alliance, reef branches followed by chute slots. */
+    private static final int[] BLUE_CANDIDATE_IDS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 31, 32, 33, 34, 35, 36};
+
+    /** Target IDs considered by auto-select on red alliance, reef branches followed by chute slots. */
+    private static final int[] RED_CANDIDATE_IDS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18};
+
     /** AutonUtils Class Object. */
     private AutonUtils autonUtils;
 
-    /** Notifier for Custom Dashboard. */
-    private Notifier dashboardNotifier;
+    /** SwerveSubsystem Object. */
+    private SwerveSubsystem drivebase;
 
-    /** Target Dashboard Pose, updated periodically through SmartDashboard. */
-    private int targetDashboardPose;
+    /** Obstacle-aware travel time estimator, blue candidates first, followed by red candidates. */
+    private TravelTimeEstimator travelTimeEstimator;
 
-    /** Match Time reflected by FMS. */
-    private int lastMatchTime = -1;
+    /** Subscriber for the target pose selected on the Custom Dashboard. */
+    private final DoubleSubscriber targetDashboardPoseSubscriber;
+
+    /**
+     * Target Dashboard Pose, written by the NetworkTables listener thread and read by the main loop.
+     * {@link #AUTO_SELECT_TARGET_ID} selects automatically.
+     */
+    private final AtomicInteger targetDashboardPose = new AtomicInteger(AUTO_SELECT_TARGET_ID);
+
+    /** Match Time reflected by FMS, published to the Custom Dashboard. */
+    private final TelemetryScheduler.DoubleChannel matchTimeChannel;
+
+    /** Target ID with the shortest estimated travel time while auto-select is active, published to the Custom Dashboard. */
+    private final TelemetryScheduler.DoubleChannel autoSelectedTargetChannel;
 
     /**
      * Constructor for the PoseNavigator class.
-     * Initializes the notifier that updates the SmartDashboard periodically.
+     * Subscribes to the Custom Dashboard target pose, and precomputes the travel time estimator used to auto-select
+     * a target.
+     * @param autonUtils AutonUtils used for the chute poses.
+     * @param drivebase SwerveSubsystem used for the current robot pose and velocity.
      */
-    public PoseNavigator(AutonUtils autonUtils) {
+    public PoseNavigator(AutonUtils autonUtils, SwerveSubsystem drivebase) {
         this.autonUtils = autonUtils;
+        this.drivebase = drivebase;
+
+        Pose2d[] candidates = new Pose2d[BLUE_CANDIDATE_IDS.length + RED_CANDIDATE_IDS.length];
+        for (int i = 0; i < BLUE_CANDIDATE_IDS.length; i++) {
+            candidates[i] = getPoseFromDashboardState(BLUE_CANDIDATE_IDS[i], AutonConstants.DISTANCE_FROM_REEF, false);
+        }
+        for (int i = 0; i < RED_CANDIDATE_IDS.length; i++) {
+            candidates[BLUE_CANDIDATE_IDS.length + i] = getPoseFromDashboardState(RED_CANDIDATE_IDS[i], AutonConstants.DISTANCE_FROM_REEF, true);
+        }
 
-        dashboardNotifier = new Notifier(this::updateDashboard);
-        dashboardNotifier.startPeriodic(0.2); // Run every 200ms
+        travelTimeEstimator = new TravelTimeEstimator(
+            drivebase.getNavigationGrid(),
+            candidates,
+            drivebase.getSwerveDrive().getMaximumChassisVelocity(),
+            AutonConstants.PATHFINDING_MAX_ACCELERATION,
+            drivebase.getSwerveDrive().getMaximumChassisAngularVelocity(),
+            AutonConstants.PATHFINDING_MAX_ANGULAR_ACCELERATION);
+
+        NetworkTableInstance inst = NetworkTableInstance.getDefault();
+
+        // The listener runs on the NetworkTables thread as soon as a new value arrives, including the current value.
+        targetDashboardPoseSubscriber = inst.getTable("SmartDashboard").getDoubleTopic("TargetDashboardPose").subscribe(AUTO_SELECT_TARGET_ID);
+        inst.addListener(
+            targetDashboardPoseSubscriber,
+            EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate),
+            event -> targetDashboardPose.set((int) event.valueData.value.getDouble()));
+
+        // Values are only published when changed, and flushed together with the rest of the telemetry.
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("PoseNavigator", "SmartDashboard", TelemetryConstants.DASHBOARD_PERIOD);
+        matchTimeChannel = telemetry.addDouble("MatchTime");
+        autoSelectedTargetChannel = telemetry.addDouble("AutoSelectedTarget");
+
+        // Ranks the targets from the published robot state, concurrently with the drivebase telemetry.
+        ParallelPeriodic.getInstance().task("PoseNavigator auto-select", this::updateAutoSelect)
+            .reads(SwerveSubsystem.STATE);
+
+        setupWarmup();
     }
 
     /**
-     * Periodically updates the target pose and match time on the SmartDashboard.
-     * This method is called by the Notifier.
+     * Register the target pose math and the travel time ranking with the {@link JitWarmup}, from synthetic robot
+     * states moving around the field.
      */
-    private void updateDashboard() {
-        int newTargetPose = (int) SmartDashboard.getNumber("TargetDashboardPose", 0);
-        if (newTargetPose != targetDashboardPose) {
-            targetDashboardPose = newTargetPose;
-        }
+    private void setupWarmup() {
+        int[] step = {0};
+        JitWarmup.getInstance().register("PoseNavigator", () -> {
+            int i = step[0]++;
+            boolean isRed = (i & 1) == 1;
+            int[] candidateIDs = isRed ? RED_CANDIDATE_IDS : BLUE_CANDIDATE_IDS;
+            int offset = isRed ? BLUE_CANDIDATE_IDS.length : 0;
+
+            double t = i * 0.01;
+            Pose2d pose = new Pose2d(8.75 + 6 * Math.cos(t), 4 + 3 * Math.sin(t), new Rotation2d(t));
+            ChassisSpeeds fieldVelocity = new ChassisSpeeds(-2 * Math.sin(t), 2 * Math.cos(t), 1.0);
+
+            int best = travelTimeEstimator.selectFastest(offset, offset + candidateIDs.length, pose, fieldVelocity);
+            Pose2d target = getPoseFromDashboardState(candidateIDs[best - offset], AutonConstants.DISTANCE_FROM_REEF, isRed);
+            JitWarmup.consume(target.getX());
+        });
+    }
 
-        int currentMatchTime = (int) DriverStation.getMatchTime();
-        if (currentMatchTime != lastMatchTime) {
-            SmartDashboard.putNumber("MatchTime", currentMatchTime);
-            lastMatchTime = currentMatchTime;
-        }
+    @Override
+    public void periodic() {
+        matchTimeChannel.set((int) DriverStation.getMatchTime());
+        LoopWatchdog.getInstance().epoch(getName(), ".periodic()");
+    }
 
-        // Flushes all updated values.
-        NetworkTableInstance.getDefault().flush();
+    /** Publishes the auto-selected target while auto-select is active, run by the {@link ParallelPeriodic}. */
+    private void updateAutoSelect() {
+        if (targetDashboardPose.get() == AUTO_SELECT_TARGET_ID) {
+            // Re-evaluated every loop so the dashboard always shows the target the driver would get.
+            autoSelectedTargetChannel.set(updateAutoSelectedTarget(drivebase.isRedAlliance()));
+        }
     }
 
     /**
@@ -67,7 +151,26 @@ public class PoseNavigator extends SubsystemBase {
      * @return The selected target {@link Pose2d} based on the current target dashboard pose.
      */
     public Pose2d selectTargetPose(double distanceFromReef, boolean isRedAlliance) {
-        return getPoseFromDashboardState(targetDashboardPose, distanceFromReef, isRedAlliance);
+        int targetID = targetDashboardPose.get();
+        if (targetID == AUTO_SELECT_TARGET_ID) {
+            targetID = updateAutoSelectedTarget(isRedAlliance);
+        }
+        return getPoseFromDashboardState(targetID, distanceFromReef, isRedAlliance);
+    }
+
+    /**
+     * Ranks the reef and chute targets of an alliance by estimated travel time from the current robot state.
+     * @param isRedAlliance Whether the robot is on the red alliance.
+     * @return The target ID with the shortest estimated travel time.
+     */
+    private int updateAutoSelectedTarget(boolean isRedAlliance) {
+        int[] candidateIDs = isRedAlliance ? RED_CANDIDATE_IDS : BLUE_CANDIDATE_IDS;
+        int offset = isRedAlliance ? BLUE_CANDIDATE_IDS.length : 0;
+
+        Pose2d pose = drivebase.getPose();
+        ChassisSpeeds fieldVelocity = drivebase.getFieldVelocity();
+        int bestIndex = travelTimeEstimator.selectFastest(offset, offset + candidateIDs.length, pose, fieldVelocity);
+        return candidateIDs[bestIndex - offset];
     }
 
     /**
@@ -79,7 +182,7 @@ public class PoseNavigator extends SubsystemBase {
      * @return A list of {@link Pose2d} objects representing the robot's position and heading.
      * @throws IllegalArgumentException If the distance is outside the valid range (0.4 to 1.5 meters).
      */
-    public List<Pose2d> calculateReefBranchOffsets(double distanceFromReef) {
+    public static List<Pose2d> calculateReefBranchOffsets(double distanceFromReef) {
         // Validate distance is within the valid range, in meters.
         if (distanceFromReef < 0.4 || distanceFromReef > 1.5) {
             throw new IllegalArgumentException("Distance must be between 0.4 and 1.5 meters. Provided: " + distanceFromReef);
@@ -127,7 +230,7 @@ public class PoseNavigator extends SubsystemBase {
      * @param headingAngle The heading angle to face the reef center.
      * @return The created {@link Pose2d} object.
      */
-    private Pose2d createPose(double[] branch, double sideAngle, double distanceFromReef, double headingAngle) {
+    private static Pose2d createPose(double[] branch, double sideAngle, double distanceFromReef, double headingAngle) {
         double transformedX = branch[0] + distanceFromReef * Math.cos(sideAngle);
         double transformedY = branch[1] + distanceFromReef * Math.sin(sideAngle);
         return new Pose2d(new Translation2d(transformedX, transformedY), new Rotation2d(headingAngle));
@@ -141,18 +244,40 @@ public class PoseNavigator extends SubsystemBase {
      * @return The target pose corresponding to the target ID.
      */
     public Pose2d getPoseFromDashboardState(int targetID, double distanceFromReef, boolean isRedAlliance) {
+        return getTargetPose(autonUtils, targetID, distanceFromReef, isRedAlliance);
+    }
+
+    /**
+     * Selects the target pose based on the target ID and alliance side, without a PoseNavigator, such as at build time.
+     * @param autonUtils AutonUtils used for the chute poses.
+     * @param targetID The ID of the target pose.
+     * @param distanceFromReef The distance from the robot to the reef, in meters.
+     * @param isRedAlliance Whether the robot is on the red alliance.
+     * @return The target pose corresponding to the target ID.
+     */
+    public static Pose2d getTargetPose(AutonUtils autonUtils, int targetID, double distanceFromReef, boolean isRedAlliance) {
         if (targetID >= 13 && targetID <= 36) {
-            return selectChutePose(targetID);
+            return selectChutePose(autonUtils, targetID);
         }
         return calculateReefPose(distanceFromReef, targetID, isRedAlliance);
     }
 
+    /**
+     * Get the target IDs considered by auto-select for an alliance.
+     * @param isRedAlliance Whether the robot is on the red alliance.
+     * @return The reef branch IDs followed by the chute slot IDs.
+     */
+    public static int[] getCandidateIDs(boolean isRedAlliance) {
+        return (isRedAlliance ? RED_CANDIDATE_IDS : BLUE_CANDIDATE_IDS).clone();
+    }
+
     /**
      * Selects a chute pose based on the target ID.
+     * @param autonUtils AutonUtils used for the chute poses.
      * @param targetID The ID of the target chute.
      * @return The selected Pose2d corresponding to the chute.
      */
-    private Pose2d selectChutePose(int targetID) {
+    private static Pose2d selectChutePose(AutonUtils autonUtils, int targetID) {
         return switch (targetID) {
             case 13 -> autonUtils.RED_BOTTOM_CHUTE[2];
             case 14 -> autonUtils.RED_BOTTOM_CHUTE[1];
@@ -177,7 +302,7 @@ public class PoseNavigator extends SubsystemBase {
      * @param isRedAlliance Whether the robot is on the red alliance.
      * @return The calculated Pose2d for the target branch.
      */
-    private Pose2d calculateReefPose(double distanceFromReef, int targetID, boolean isRedAlliance) {
+    private static Pose2d calculateReefPose(double distanceFromReef, int targetID, boolean isRedAlliance) {
         // Convert target branch to zero-based index.
         int branchIndex = targetID - 1;
 
@@ -5,13 +5,16 @@
 package frc.robot.subsystems;
 
 import static edu.wpi.first.units.Units.Meter;
+import static edu.wpi.first.units.Units.RadiansPerSecond;
 
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.commands.PathfindingCommand;
-import com.pathplanner.lib.config.PIDConstants;
 import com.pathplanner.lib.config.RobotConfig;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
 import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.pathfinding.Pathfinding;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import com.pathplanner.lib.util.DriveFeedforwards;
 
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Pose2d;
@@ -19,14 +22,30 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.trajectory.Trajectory;
-import edu.wpi.first.math.util.Units;
+import edu.wpi.first.units.measure.Force;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Config;
 import frc.robot.Constants;
 import frc.robot.Constants.AutonConstants;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.utils.ConfigRegistry;
+import frc.robot.utils.DriveRecorder;
+import frc.robot.utils.DriverInput;
+import frc.robot.utils.FeedforwardCharacterizer;
+import frc.robot.utils.JitWarmup;
+import frc.robot.utils.LoopWatchdog;
+import frc.robot.utils.ParallelPeriodic;
+import frc.robot.utils.RobotState;
+import frc.robot.utils.StartupOrchestrator;
+import frc.robot.utils.TelemetryScheduler;
+import frc.robot.utils.TipLimiter;
 
 import java.io.File;
 import java.util.Arrays;
@@ -45,32 +64,84 @@ import swervelib.telemetry.SwerveDriveTelemetry.TelemetryVerbosity;
 
 public class SwerveSubsystem extends SubsystemBase {
 
+    /** State shared by the periodic tasks of the drivebase, see {@link ParallelPeriodic}. */
+    public static final String ODOMETRY = "Odometry", VISION_ESTIMATES = "VisionEstimates", STATE = "RobotState";
+    public static final String NAVIGATION_OVERLAY = "NavigationOverlay";
+
     /** Swerve Drive Object. */
     private final SwerveDrive swerveDrive;
 
     /** PhotonVision class to keep an accurate odometry. */
     private VisionUtils visionUtils;
 
+    /** Path following controller shared by AutoBuilder and compiled trajectory followers. */
+    private final PPHolonomicDriveController pathFollowingController = createPathFollowingController();
+
+    /** Measured module states as [angle (deg), velocity (m/s)] pairs, reused every loop. */
+    private final double[] measuredStates = new double[8];
+
+    /** Robot relative velocity as [vx (m/s), vy (m/s), omega (rad/s)], reused every loop. */
+    private final double[] robotVelocity = new double[3];
+
+    /** Robot state of the latest odometry update, read by every consumer of the loop. */
+    private volatile RobotState state;
+
+    /** Last commanded robot relative velocity, read by the {@link #recorder} in the odometry task. */
+    private volatile ChassisSpeeds commandedSpeeds = new ChassisSpeeds();
+
+    /** Acceleration limiter keeping every drive command from tipping the robot. */
+    private TipLimiter tipLimiter;
+
+    /** Robot relative velocity supplier for the {@link #tipLimiter}, created once. */
+    private final Supplier<ChassisSpeeds> measuredVelocity = this::getRobotVelocity;
+
+    /** Binary recorder of the drivetrain, sampled once per odometry update, at the loop rate. */
+    private DriveRecorder recorder;
+
+    /** Fits the drive motor feedforward from SysId runs. */
+    private FeedforwardCharacterizer characterizer;
+
+    /** Navigation grid of the field, for the robot size of the PathPlanner settings. */
+    private NavigationGrid navigationGrid;
+
+    /** Incremental pathfinder used by PathPlanner, planning around the dynamic obstacles. */
+    private DStarLitePathfinder pathfinder;
+
+    /** Telemetry channels of the drivebase. */
+    private TelemetryScheduler.DoubleArrayChannel measuredStatesChannel, robotVelocityChannel;
+    private TelemetryScheduler.DoubleChannel headingChannel, droppedRecordsChannel, tipScaleChannel;
+    private TelemetryScheduler.FieldObjectChannel robotPoseChannel;
+
     /**
      * Initialize {@link SwerveDrive} with the directory provided.
      * @param directory Directory of swerve drive config files.
      */
     public SwerveSubsystem(File directory) {
+        this(parseConfiguration(directory));
+    }
+
+    /**
+     * Initialize {@link SwerveDrive} from already parsed config files, see {@link #parseConfiguration(File)}.
+     * @param parser Parsed swerve drive config files.
+     */
+    public SwerveSubsystem(SwerveParser parser) {
         // double angleConversionFactor = SwerveMath.calculateDegreesPerSteeringRotation(18.75);
         // double driveConversionFactor = SwerveMath.calculateMetersPerRotation(Units.inchesToMeters(4), 5.36);
 
         // Configure the Telemetry before creating the SwerveDrive to avoid unnecessary objects being created.
-        SwerveDriveTelemetry.verbosity = TelemetryVerbosity.HIGH;
+        // Drivebase telemetry is published through the TelemetryScheduler instead of YAGSL every loop.
+        SwerveDriveTelemetry.verbosity = TelemetryVerbosity.NONE;
 
         try {
             // swerveDrive = new SwerveParser(directory).createSwerveDrive(Constants.MAX_SPEED, angleConversionFactor, driveConversionFactor);
-            swerveDrive = new SwerveParser(directory).createSwerveDrive(Constants.MAX_SPEED,
-                                                                        new Pose2d(new Translation2d(Meter.of(2),
-                                                                                                    Meter.of(4)),
-                                                                                Rotation2d.fromDegrees(0)));
+            swerveDrive = parser.createSwerveDrive(Constants.MAX_SPEED,
+                                                   new Pose2d(new Translation2d(Meter.of(2),
+                                                                                Meter.of(4)),
+                                                              Rotation2d.fromDegrees(0)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        publishState();
 
         // Heading correction should only be used while controlling the robot via angle.
         swerveDrive.setHeadingCorrection(true);
@@ -88,7 +159,15 @@ public class SwerveSubsystem extends SubsystemBase {
                                                     1);
 
         // Set the absolute encoder to be used over the internal encoder and push the offsets onto it. Throws warning if not possible.
-        swerveDrive.pushOffsetsToEncoders();
+        // Modules are independent devices, so they are configured concurrently instead of one CAN round trip at a time.
+        StartupOrchestrator.runConcurrently("Swerve module offsets",
+                                            Arrays.stream(swerveDrive.getModules())
+                                                .map(module -> (Runnable) module::pushOffsetsToEncoders)
+                                                .toList());
+
+        tipLimiter = new TipLimiter(swerveDrive.swerveDriveConfiguration.moduleLocationsMeters, Constants.CHASSIS);
+        recorder = new DriveRecorder(() -> commandedSpeeds);
+        characterizer = new FeedforwardCharacterizer(swerveDrive.getModules());
 
         if (AutonConstants.DRIVE_WITH_VISION) {
             setupPhotonVision();
@@ -97,6 +176,23 @@ public class SwerveSubsystem extends SubsystemBase {
             swerveDrive.stopOdometryThread();
         }
         setupPathPlanner();
+        setupTelemetry();
+        setupPeriodic();
+        setupWarmup();
+    }
+
+    /**
+     * Parse the swerve drive config files, without creating any hardware.
+     * @param directory Directory of swerve drive config files.
+     * @return The parsed config files.
+     * @throws RuntimeException If the config files could not be read.
+     */
+    public static SwerveParser parseConfiguration(File directory) {
+        try {
+            return new SwerveParser(directory);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -110,27 +206,173 @@ public class SwerveSubsystem extends SubsystemBase {
                                       Constants.MAX_SPEED,
                                       new Pose2d(new Translation2d(Meter.of(2), Meter.of(0)),
                                                  Rotation2d.fromDegrees(0)));
+        publishState();
+        tipLimiter = new TipLimiter(driveCfg.moduleLocationsMeters, Constants.CHASSIS);
+        characterizer = new FeedforwardCharacterizer(swerveDrive.getModules());
+        setupTelemetry();
+        setupPeriodic();
+    }
+
+    /** Setup the drivebase telemetry channels. */
+    private void setupTelemetry() {
+        SmartDashboard.putData("Field", swerveDrive.field);
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("Swerve", "swerve", TelemetryConstants.DRIVEBASE_PERIOD);
+        measuredStatesChannel = telemetry.addDoubleArray("measuredStates");
+        robotVelocityChannel = telemetry.addDoubleArray("robotVelocity");
+        headingChannel = telemetry.addDouble("robotRotation");
+        robotPoseChannel = telemetry.addFieldObject(swerveDrive.field.getRobotObject());
+        droppedRecordsChannel = telemetry.addDouble("recorderDroppedRecords");
+        tipScaleChannel = telemetry.addDouble("tipLimiterScale");
+    }
+
+    /**
+     * Write the drivebase state to its telemetry channels, published by the {@link TelemetryScheduler}. Only reads the
+     * published {@link RobotState}, never the modules.
+     */
+    private void updateTelemetry() {
+        RobotState current = state;
+        SwerveModuleState[] states = current.moduleStates;
+        for (int i = 0; i < states.length && i < 4; i++) {
+            measuredStates[2 * i] = states[i].angle.getDegrees();
+            measuredStates[2 * i + 1] = states[i].speedMetersPerSecond;
+        }
+        measuredStatesChannel.set(measuredStates);
+
+        ChassisSpeeds velocity = current.robotVelocity;
+        robotVelocity[0] = velocity.vxMetersPerSecond;
+        robotVelocity[1] = velocity.vyMetersPerSecond;
+        robotVelocity[2] = velocity.omegaRadiansPerSecond;
+        robotVelocityChannel.set(robotVelocity);
+
+        Pose2d pose = current.pose;
+        headingChannel.set(pose.getRotation().getDegrees());
+        robotPoseChannel.set(pose);
+
+        if (recorder != null) {
+            droppedRecordsChannel.set(recorder.getDroppedRecords());
+        }
+    }
+
+    /**
+     * Register the drivebase control math with the {@link JitWarmup}: path following controller, discretization and
+     * kinematics, on a synthetic circular trajectory. Nothing is sent to the modules.
+     */
+    private void setupWarmup() {
+        PPHolonomicDriveController controller = createPathFollowingController();
+        PathPlannerTrajectoryState target = new PathPlannerTrajectoryState();
+        SwerveDriveKinematics kinematics = swerveDrive.kinematics;
+        double maxSpeed = swerveDrive.getMaximumChassisVelocity();
+        double[] phase = {0.0};
+
+        JitWarmup.getInstance().register("Swerve", () -> {
+            double t = phase[0] += 0.01;
+            Pose2d pose = new Pose2d(4 + Math.cos(t), 4 + Math.sin(t), new Rotation2d(t));
+            target.pose = new Pose2d(4 + Math.cos(t + 0.05), 4 + Math.sin(t + 0.05), new Rotation2d(t + 0.05));
+            target.fieldSpeeds = new ChassisSpeeds(-2 * Math.sin(t), 2 * Math.cos(t), 1.0);
+            target.heading = new Rotation2d(t + Math.PI / 2);
+
+            ChassisSpeeds speeds = ChassisSpeeds.discretize(controller.calculateRobotRelativeSpeeds(pose, target), 0.02);
+            SwerveModuleState[] states = kinematics.toSwerveModuleStates(speeds);
+            SwerveDriveKinematics.desaturateWheelSpeeds(states, maxSpeed);
+            JitWarmup.consume(kinematics.toChassisSpeeds(states).omegaRadiansPerSecond);
+        });
+    }
+
+    /**
+     * Creates the holonomic controller used to follow paths.
+     * @return A new {@link PPHolonomicDriveController}.
+     */
+    private static PPHolonomicDriveController createPathFollowingController() {
+        return new PPHolonomicDriveController(AutonConstants.TRANSLATION_PID, AutonConstants.ANGLE_PID);
     }
 
     /** Setup the photon vision class. */
     public void setupPhotonVision() {
-        visionUtils = new VisionUtils(swerveDrive::getPose, swerveDrive.field);
+        visionUtils = new VisionUtils(this::getPose, swerveDrive.field, recorder);
+    }
+
+    /**
+     * Register the drivebase periodic work with the {@link ParallelPeriodic}. Reading the cameras is independent of the
+     * odometry update, fusing them is not, and the telemetry only needs the published {@link RobotState}.
+     */
+    private void setupPeriodic() {
+        ParallelPeriodic periodic = ParallelPeriodic.getInstance();
+        if (AutonConstants.DRIVE_WITH_VISION && visionUtils != null) {
+            periodic.task("Swerve odometry", swerveDrive::updateOdometry)
+                .writes(ODOMETRY);
+            // The simulated cameras see the simulated drivetrain, which moves with the odometry update.
+            ParallelPeriodic.Task cameras = periodic.task("Vision cameras", () -> visionUtils.updateCameras(swerveDrive))
+                .writes(VISION_ESTIMATES);
+            if (SwerveDriveTelemetry.isSimulation) {
+                cameras.reads(ODOMETRY);
+            }
+            periodic.task("Vision fusion", () -> visionUtils.updatePoseEstimation(swerveDrive))
+                .reads(VISION_ESTIMATES)
+                .writes(ODOMETRY);
+        }
+        periodic.task("Swerve state", this::updateState)
+            .reads(ODOMETRY)
+            .writes(STATE);
+        periodic.task("Swerve telemetry", this::updateTelemetry)
+            .reads(STATE);
+        if (pathfinder != null) {
+            periodic.task("Pathfinder", pathfinder::update)
+                .reads(STATE)
+                .writes(NAVIGATION_OVERLAY);
+        }
     }
 
     @Override
     public void periodic() {
-        if (AutonConstants.DRIVE_WITH_VISION) {
-            swerveDrive.updateOdometry();
-            visionUtils.updatePoseEstimation(swerveDrive);
+        // Odometry, vision and telemetry run in the ParallelPeriodic before the scheduler, see setupPeriodic().
+        // The drive motors are sampled here, on the thread SysId drives them from.
+        characterizer.sample();
+        if (recorder != null) {
+            Command command = getCurrentCommand();
+            recorder.recordCommand(command != null ? command.getName() : null);
         }
+        LoopWatchdog.getInstance().epoch(getName(), ".periodic()");
+    }
+
+    /** Publish the robot state of this loop and record the drivetrain, after the odometry update. */
+    private void updateState() {
+        publishState();
+        if (recorder != null) {
+            recorder.recordDrive(state);
+        }
+    }
+
+    /**
+     * Publish a new {@link RobotState} from the pose estimator. Called once per odometry update, and after the odometry
+     * is reset so no consumer reads the pose from before the reset.
+     */
+    private void publishState() {
+        var alliance = DriverStation.getAlliance();
+        state = new RobotState(Timer.getFPGATimestamp(),
+                               swerveDrive.getPose(),
+                               swerveDrive.getRobotVelocity(),
+                               swerveDrive.getStates(),
+                               swerveDrive.getYaw(),
+                               swerveDrive.getGyro().getYawAngularVelocity().in(RadiansPerSecond),
+                               alliance.isPresent() && alliance.get() == DriverStation.Alliance.Red);
+    }
+
+    /**
+     * Get the robot state of the latest odometry update. Safe to call from any thread.
+     * @return The latest {@link RobotState}.
+     */
+    public RobotState getState() {
+        return state;
     }
 
     /** Setup AutoBuilder for PathPlanner. */
     public void setupPathPlanner() {
-        // Load the RobotConfig from the GUI settings. Store this in Constants file.
+        // Load the RobotConfig from the GUI settings, cached and validated by the ConfigRegistry.
         RobotConfig config;
         try {
-            config = RobotConfig.fromGUISettings();
+            config = ConfigRegistry.getInstance().get().robotConfig;
 
             final boolean enableFeedforward = true;
             // Configure AutoBuilder last.
@@ -143,22 +385,14 @@ public class SwerveSubsystem extends SubsystemBase {
                 // ChassisSpeeds supplier. MUST BE ROBOT RELATIVE.
                 (speedsRobotRelative, moduleFeedForwards) -> {
                     if (enableFeedforward) {
-                        swerveDrive.drive(
-                            speedsRobotRelative,
-                            swerveDrive.kinematics.toSwerveModuleStates(speedsRobotRelative),
-                            moduleFeedForwards.linearForces());
+                        drivePathFollowing(speedsRobotRelative, moduleFeedForwards);
                     } else {
-                        swerveDrive.setChassisSpeeds(speedsRobotRelative);
+                        setChassisSpeeds(speedsRobotRelative);
                     }
                 },
                 // Method that will drive the robot given ROBOT RELATIVE ChassisSpeeds. Also optionally outputs individual module feedforwards.
-                new PPHolonomicDriveController(
-                    // PPHolonomicController is the built in path following controller for holonomic drive trains.
-                    new PIDConstants(5.0, 0.0, 0.0),
-                    // Translation PID constants.
-                    new PIDConstants(5.0, 0.0, 0.0)
-                    // Rotation PID constants.
-                ),
+                pathFollowingController,
+                // PPHolonomicController is the built in path following controller for holonomic drive trains.
                 config,
                 // The robot configuration
                 () -> {
@@ -178,20 +412,72 @@ public class SwerveSubsystem extends SubsystemBase {
             e.printStackTrace();
         }
 
+        // Plan around dynamic obstacles on the navigation grid, set before the warmup creates the default pathfinder.
+        ConfigRegistry.Snapshot snapshot = ConfigRegistry.getInstance().get();
+        navigationGrid = NavigationGrid.load(
+            new File(Filesystem.getDeployDirectory(), "navgrid/field" + NavigationGrid.EXTENSION),
+            snapshot.robotWidth,
+            snapshot.robotLength);
+        pathfinder = new DStarLitePathfinder(navigationGrid, this::getState);
+        Pathfinding.setPathfinder(pathfinder);
+
         // Preload PathPlanner PathFinding.
         PathfindingCommand.warmupCommand().schedule();
     }
 
     /**
-     * Use PathPlanner Path finding to go to a point on the field.
+     * Drive the robot with path following output, applying the module feedforwards.
+     * @param speedsRobotRelative Robot relative {@link ChassisSpeeds}.
+     * @param moduleFeedForwards  Module feedforwards of the current trajectory state.
+     */
+    public void drivePathFollowing(ChassisSpeeds speedsRobotRelative, DriveFeedforwards moduleFeedForwards) {
+        ChassisSpeeds speeds = limitTipping(speedsRobotRelative);
+        Force[] forces = moduleFeedForwards.linearForces();
+        if (speeds != speedsRobotRelative) {
+            // The feedforwards accelerate along the path, scale them with the acceleration that was kept.
+            forces = forces.clone();
+            for (int i = 0; i < forces.length; i++) {
+                forces[i] = forces[i].times(tipLimiter.getLastScale());
+            }
+        }
+        swerveDrive.drive(speeds, swerveDrive.kinematics.toSwerveModuleStates(speeds), forces);
+    }
+
+    /**
+     * Get the path following controller used by AutoBuilder.
+     * @return The {@link PPHolonomicDriveController}.
+     */
+    public PPHolonomicDriveController getPathFollowingController() {
+        return pathFollowingController;
+    }
+
+    /**
+     * Get the navigation grid of the field, to query obstacles.
+     * @return The {@link NavigationGrid}.
+     */
+    public NavigationGrid getNavigationGrid() {
+        return navigationGrid;
+    }
+
+    /**
+     * Get the pathfinder, to give it dynamic obstacles such as robots detected by vision.
+     * @return The {@link DStarLitePathfinder}.
+     */
+    public DStarLitePathfinder getPathfinder() {
+        return pathfinder;
+    }
+
+    /**
+     * Use PathPlanner Path finding to go to a point on the field. The path is repaired around dynamic obstacles while
+     * it is followed, see {@link DStarLitePathfinder}.
      * @param pose Target {@link Pose2d} to go to.
      * @return PathFinding command
      */
     public Command driveToPose(Pose2d pose) {
         // Create the constraints to use while pathfinding
         PathConstraints constraints = new PathConstraints(
-            swerveDrive.getMaximumChassisVelocity(), 4.0,
-            swerveDrive.getMaximumChassisAngularVelocity(), Units.degreesToRadians(720));
+            swerveDrive.getMaximumChassisVelocity(), AutonConstants.PATHFINDING_MAX_ACCELERATION,
+            swerveDrive.getMaximumChassisAngularVelocity(), AutonConstants.PATHFINDING_MAX_ANGULAR_ACCELERATION);
 
         // Since AutoBuilder is configured, we can use it to build pathfinding commands
         return AutoBuilder.pathfindToPose(
@@ -213,6 +499,28 @@ public class SwerveSubsystem extends SubsystemBase {
             3.0, 5.0, 3.0);
     }
 
+    /**
+     * Command to characterize the robot drive motors using SysId, fit their feedforward on the robot and apply it if the
+     * fit is {@link FeedforwardCharacterizer.Fit#isValid() valid}. The fit is not applied if the command is interrupted.
+     * @return Drive feedforward characterization command.
+     */
+    public Command characterizeDriveFeedforwardCommand() {
+        return runOnce(characterizer::start)
+            .andThen(sysIdDriveMotorCommand())
+            .andThen(runOnce(() -> {
+                characterizer.stop();
+                FeedforwardCharacterizer.Fit fit = characterizer.fit();
+                if (fit.isValid()) {
+                    replaceSwerveModuleFeedforward(fit.kS, fit.kV, fit.kA);
+                    System.out.println("Applied drive feedforward: " + fit);
+                } else {
+                    DriverStation.reportWarning("Drive feedforward fit rejected: " + fit, false);
+                }
+            }))
+            .finallyDo(characterizer::stop)
+            .withName("CharacterizeDriveFeedforward");
+    }
+
     /**
      * Command to characterize the robot angle motors using SysId
      * @return SysId Angle Command
@@ -242,7 +550,7 @@ public class SwerveSubsystem extends SubsystemBase {
      */
     public Command driveToDistanceCommand(double distanceInMeters, double speedInMetersPerSecond) {
         return run(() -> drive(new ChassisSpeeds(speedInMetersPerSecond, 0, 0)))
-            .until(() -> swerveDrive.getPose().getTranslation().getDistance(new Translation2d(0, 0)) >
+            .until(() -> getPose().getTranslation().getDistance(new Translation2d(0, 0)) >
                         distanceInMeters);
     }
 
@@ -258,27 +566,25 @@ public class SwerveSubsystem extends SubsystemBase {
 
     /**
      * Command to drive the robot using translative values and heading as angular velocity.
-     * @param translationX     Translation in the X direction. Cubed for smoother controls.
-     * @param translationY     Translation in the Y direction. Cubed for smoother controls.
-     * @param angularRotationX Angular velocity of the robot to set. Cubed for smoother controls.
+     * @param translationX     Translation in the X direction, shaped by {@link DriverInput}.
+     * @param translationY     Translation in the Y direction, shaped by {@link DriverInput}.
+     * @param angularRotationX Angular velocity of the robot to set, shaped by {@link DriverInput}.
      * @return Drive command.
      */
     public Command driveCommand(DoubleSupplier translationX, DoubleSupplier translationY, DoubleSupplier angularRotationX) {
         return run(() -> {
             // Make the robot move
-            swerveDrive.drive(SwerveMath.scaleTranslation(new Translation2d(
-                                    translationX.getAsDouble() * swerveDrive.getMaximumChassisVelocity(),
-                                    translationY.getAsDouble() * swerveDrive.getMaximumChassisVelocity()), 0.8),
-                                Math.pow(angularRotationX.getAsDouble(), 3) * swerveDrive.getMaximumChassisAngularVelocity(),
-                                true,
-                                false);
+            drive(new Translation2d(translationX.getAsDouble() * swerveDrive.getMaximumChassisVelocity(),
+                                    translationY.getAsDouble() * swerveDrive.getMaximumChassisVelocity()),
+                  angularRotationX.getAsDouble() * swerveDrive.getMaximumChassisAngularVelocity(),
+                  true);
         });
     }
 
     /**
      * Command to drive the robot using translative values and heading as a setpoint.
-     * @param translationX Translation in the X direction. Cubed for smoother controls.
-     * @param translationY Translation in the Y direction. Cubed for smoother controls.
+     * @param translationX Translation in the X direction, shaped by {@link DriverInput}.
+     * @param translationY Translation in the Y direction, shaped by {@link DriverInput}.
      * @param headingX     Heading X to calculate angle of the joystick.
      * @param headingY     Heading Y to calculate angle of the joystick.
      * @return Drive command.
@@ -286,11 +592,9 @@ public class SwerveSubsystem extends SubsystemBase {
     public Command driveCommand(DoubleSupplier translationX, DoubleSupplier translationY, DoubleSupplier headingX, DoubleSupplier headingY) {
         // swerveDrive.setHeadingCorrection(true); // Normally you would want heading correction for this kind of control.
         return run(() -> {
-            Translation2d scaledInputs = SwerveMath.scaleTranslation(new Translation2d(translationX.getAsDouble(),
-                                                                                        translationY.getAsDouble()), 0.8);
-
             // Make the robot move
-            driveFieldOriented(swerveDrive.swerveController.getTargetSpeeds(scaledInputs.getX(), scaledInputs.getY(),
+            driveFieldOriented(swerveDrive.swerveController.getTargetSpeeds(translationX.getAsDouble(),
+                                                                            translationY.getAsDouble(),
                                                                             headingX.getAsDouble(),
                                                                             headingY.getAsDouble(),
                                                                             swerveDrive.getOdometryHeading().getRadians(),
@@ -313,10 +617,11 @@ public class SwerveSubsystem extends SubsystemBase {
      * @param fieldRelative Drive mode.  True for field-relative, false for robot-relative.
      */
     public void drive(Translation2d translation, double rotation, boolean fieldRelative) {
-        swerveDrive.drive(translation,
-                          rotation,
-                          fieldRelative,
-                          false); // Open loop is disabled since it shouldn't be used most of the time.
+        ChassisSpeeds speeds = new ChassisSpeeds(translation.getX(), translation.getY(), rotation);
+        if (fieldRelative) {
+            speeds = ChassisSpeeds.fromFieldRelativeSpeeds(speeds, getHeading());
+        }
+        swerveDrive.drive(limitTipping(speeds)); // Closed loop, open loop shouldn't be used most of the time.
     }
 
     /**
@@ -324,7 +629,7 @@ public class SwerveSubsystem extends SubsystemBase {
      * @param velocity Velocity according to the field.
      */
     public void driveFieldOriented(ChassisSpeeds velocity) {
-        swerveDrive.driveFieldOriented(velocity);
+        swerveDrive.drive(limitTipping(ChassisSpeeds.fromFieldRelativeSpeeds(velocity, getHeading())));
     }
 
     /**
@@ -333,7 +638,7 @@ public class SwerveSubsystem extends SubsystemBase {
      */
     public Command driveFieldOriented(Supplier<ChassisSpeeds> velocity) {
         return run(() -> {
-            swerveDrive.driveFieldOriented(velocity.get());
+            driveFieldOriented(velocity.get());
         });
     }
 
@@ -342,7 +647,7 @@ public class SwerveSubsystem extends SubsystemBase {
      * @param velocity Robot oriented {@link ChassisSpeeds}
      */
     public void drive(ChassisSpeeds velocity) {
-        swerveDrive.drive(velocity);
+        swerveDrive.drive(limitTipping(velocity));
     }
 
     /**
@@ -361,14 +666,15 @@ public class SwerveSubsystem extends SubsystemBase {
      */
     public void resetOdometry(Pose2d initialHolonomicPose) {
         swerveDrive.resetOdometry(initialHolonomicPose);
+        publishState();
     }
 
     /**
      * Gets the current pose (position and rotation) of the robot, as reported by odometry.
-     * @return The robot's pose
+     * @return The robot's pose, from the latest {@link RobotState}.
      */
     public Pose2d getPose() {
-        return swerveDrive.getPose();
+        return state.pose;
     }
 
     /**
@@ -376,7 +682,28 @@ public class SwerveSubsystem extends SubsystemBase {
      * @param chassisSpeeds Chassis Speeds to set.
      */
     public void setChassisSpeeds(ChassisSpeeds chassisSpeeds) {
-        swerveDrive.setChassisSpeeds(chassisSpeeds);
+        swerveDrive.setChassisSpeeds(limitTipping(chassisSpeeds));
+    }
+
+    /**
+     * Limits a command to the acceleration the robot can take without tipping, and records it as the setpoint. Every
+     * drive method goes through here.
+     * @param speedsRobotRelative Desired robot relative {@link ChassisSpeeds}.
+     * @return The speeds to command.
+     */
+    private ChassisSpeeds limitTipping(ChassisSpeeds speedsRobotRelative) {
+        ChassisSpeeds speeds = tipLimiter.limit(speedsRobotRelative, measuredVelocity);
+        commandedSpeeds = speeds;
+        tipScaleChannel.set(tipLimiter.getLastScale());
+        return speeds;
+    }
+
+    /**
+     * Get the tip limiter of the drivebase, to register the masses of mechanisms that move the center of mass.
+     * @return The {@link TipLimiter}.
+     */
+    public TipLimiter getTipLimiter() {
+        return tipLimiter;
     }
 
     /**
@@ -391,6 +718,7 @@ public class SwerveSubsystem extends SubsystemBase {
     public void zeroGyro() {
         System.out.println("Resetting Gyro Angle!");
         swerveDrive.zeroGyro();
+        publishState();
     }
 
     /**
@@ -398,8 +726,7 @@ public class SwerveSubsystem extends SubsystemBase {
      * @return true if the red alliance, false if blue. Defaults to false if none is available.
      */
     public boolean isRedAlliance() {
-        var alliance = DriverStation.getAlliance();
-        return alliance.isPresent() ? alliance.get() == DriverStation.Alliance.Red : false;
+        return state.isRedAlliance;
     }
 
     /**
@@ -426,25 +753,24 @@ public class SwerveSubsystem extends SubsystemBase {
     /**
      * Gets the current yaw angle of the robot, as reported by the swerve pose estimator in the underlying drivebase.
      * Note, this is not the raw gyro reading, this may be corrected from calls to resetOdometry().
-     * @return The yaw angle
+     * @return The yaw angle, from the latest {@link RobotState}.
      */
     public Rotation2d getHeading() {
-        return getPose().getRotation();
+        return state.heading;
     }
 
     /**
      * Get the chassis speeds based on controller input of 2 joysticks. One for speeds in which direction. The other for
      * the angle of the robot.
-     * @param xInput   X joystick input for the robot to move in the X direction.
-     * @param yInput   Y joystick input for the robot to move in the Y direction.
+     * @param xInput   X joystick input for the robot to move in the X direction, shaped by {@link DriverInput}.
+     * @param yInput   Y joystick input for the robot to move in the Y direction, shaped by {@link DriverInput}.
      * @param headingX X joystick which controls the angle of the robot.
      * @param headingY Y joystick which controls the angle of the robot.
      * @return {@link ChassisSpeeds} which can be sent to the Swerve Drive.
      */
     public ChassisSpeeds getTargetSpeeds(double xInput, double yInput, double headingX, double headingY) {
-        Translation2d scaledInputs = SwerveMath.cubeTranslation(new Translation2d(xInput, yInput));
-        return swerveDrive.swerveController.getTargetSpeeds(scaledInputs.getX(),
-                                                            scaledInputs.getY(),
+        return swerveDrive.swerveController.getTargetSpeeds(xInput,
+                                                            yInput,
                                                             headingX,
                                                             headingY,
                                                             getHeading().getRadians(),
@@ -454,15 +780,14 @@ public class SwerveSubsystem extends SubsystemBase {
     /**
      * Get the chassis speeds based on controller input of 1 joystick and one angle. Control the robot at an offset of
      * 90deg.
-     * @param xInput X joystick input for the robot to move in the X direction.
-     * @param yInput Y joystick input for the robot to move in the Y direction.
+     * @param xInput X joystick input for the robot to move in the X direction, shaped by {@link DriverInput}.
+     * @param yInput Y joystick input for the robot to move in the Y direction, shaped by {@link DriverInput}.
      * @param angle  The angle in as a {@link Rotation2d}.
      * @return {@link ChassisSpeeds} which can be sent to the Swerve Drive.
      */
     public ChassisSpeeds getTargetSpeeds(double xInput, double yInput, Rotation2d angle) {
-        Translation2d scaledInputs = SwerveMath.cubeTranslation(new Translation2d(xInput, yInput));
-        return swerveDrive.swerveController.getTargetSpeeds(scaledInputs.getX(),
-                                                            scaledInputs.getY(),
+        return swerveDrive.swerveController.getTargetSpeeds(xInput,
+                                                            yInput,
                                                             angle.getRadians(),
                                                             getHeading().getRadians(),
                                                             Constants.MAX_SPEED);
@@ -470,18 +795,18 @@ public class SwerveSubsystem extends SubsystemBase {
 
     /**
      * Gets the current field-relative velocity (x, y and omega) of the robot
-     * @return A ChassisSpeeds object of the current field-relative velocity
+     * @return A ChassisSpeeds object of the current field-relative velocity, from the latest {@link RobotState}.
      */
     public ChassisSpeeds getFieldVelocity() {
-        return swerveDrive.getFieldVelocity();
+        return state.fieldVelocity;
     }
 
     /**
      * Gets the current velocity (x, y and omega) of the robot
-     * @return A {@link ChassisSpeeds} object of the current velocity
+     * @return A {@link ChassisSpeeds} object of the current velocity, from the latest {@link RobotState}.
      */
     public ChassisSpeeds getRobotVelocity() {
-        return swerveDrive.getRobotVelocity();
+        return state.robotVelocity;
     }
 
     /**
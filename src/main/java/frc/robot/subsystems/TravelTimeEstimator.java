@@ -0,0 +1,247 @@
+package frc.robot.subsystems;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Estimates the time needed to drive to a fixed set of field targets while avoiding the static obstacles of the
+ * {@link NavigationGrid}.
+ * <p>
+ * The obstacle-aware distance from every grid cell to every target is computed once at construction, so each estimate
+ * is a table lookup plus a trapezoidal profile for translation and rotation, without any allocation.
+ */
+public class TravelTimeEstimator {
+
+    /** Cost multiplier applied when travelling through a cell marked as an obstacle. */
+    private static final double OBSTACLE_PENALTY = 10.0;
+
+    /** Number of columns (X) in the navigation grid. */
+    private final int columns;
+
+    /** Number of rows (Y) in the navigation grid. */
+    private final int rows;
+
+    /** Size of a single grid cell, in meters. */
+    private final double nodeSize;
+
+    /** Target X positions, in meters. */
+    private final double[] targetX;
+
+    /** Target Y positions, in meters. */
+    private final double[] targetY;
+
+    /** Target headings, in radians. */
+    private final double[] targetHeading;
+
+    /** Obstacle-aware distance from each cell to each target, indexed by [target][row * columns + column]. */
+    private final float[][] distanceFields;
+
+    /** Translation and rotation limits used for the motion profiles. */
+    private final double maxVelocity, maxAcceleration, maxAngularVelocity, maxAngularAcceleration;
+
+    /**
+     * Constructor for the TravelTimeEstimator class.
+     * @param grid                   Navigation grid, only its static obstacles are used.
+     * @param targets                Target poses to estimate travel times to.
+     * @param maxVelocity            Maximum translational velocity, in meters per second.
+     * @param maxAcceleration        Maximum translational acceleration, in meters per second squared.
+     * @param maxAngularVelocity     Maximum angular velocity, in radians per second.
+     * @param maxAngularAcceleration Maximum angular acceleration, in radians per second squared.
+     */
+    public TravelTimeEstimator(NavigationGrid grid, Pose2d[] targets, double maxVelocity, double maxAcceleration,
+                               double maxAngularVelocity, double maxAngularAcceleration) {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxAngularVelocity = maxAngularVelocity;
+        this.maxAngularAcceleration = maxAngularAcceleration;
+
+        nodeSize = grid.getNodeSize();
+        rows = grid.getRows();
+        columns = grid.getColumns();
+
+        targetX = new double[targets.length];
+        targetY = new double[targets.length];
+        targetHeading = new double[targets.length];
+        distanceFields = new float[targets.length][];
+
+        for (int i = 0; i < targets.length; i++) {
+            targetX[i] = targets[i].getX();
+            targetY[i] = targets[i].getY();
+            targetHeading[i] = targets[i].getRotation().getRadians();
+            distanceFields[i] = computeDistanceField(grid, targetX[i], targetY[i]);
+        }
+    }
+
+    /**
+     * Selects the target with the shortest estimated travel time within a range of target indices.
+     * @param fromIndex     First target index to consider, inclusive.
+     * @param toIndex       Last target index to consider, exclusive.
+     * @param pose          Current robot pose.
+     * @param fieldVelocity Current field-relative robot velocity.
+     * @return Index of the fastest target to reach.
+     */
+    public int selectFastest(int fromIndex, int toIndex, Pose2d pose, ChassisSpeeds fieldVelocity) {
+        int bestIndex = fromIndex;
+        double bestTime = Double.POSITIVE_INFINITY;
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            double time = estimate(i, pose, fieldVelocity);
+            if (time < bestTime) {
+                bestTime = time;
+                bestIndex = i;
+            }
+        }
+        return bestIndex;
+    }
+
+    /**
+     * Estimates the time to reach a target from the current robot state. Translation follows the obstacle-aware
+     * distance of the navigation grid, and rotation happens during translation, so the slower of the two dominates.
+     * @param index         Target index.
+     * @param pose          Current robot pose.
+     * @param fieldVelocity Current field-relative robot velocity.
+     * @return Estimated travel time, in seconds.
+     */
+    public double estimate(int index, Pose2d pose, ChassisSpeeds fieldVelocity) {
+        double x = pose.getX();
+        double y = pose.getY();
+        float[] field = distanceFields[index];
+
+        int column = MathUtil.clamp((int) (x / nodeSize), 0, columns - 1);
+        int row = MathUtil.clamp((int) (y / nodeSize), 0, rows - 1);
+        int cell = row * columns + column;
+
+        double dx = targetX[index] - x;
+        double dy = targetY[index] - y;
+        double straightDistance = Math.hypot(dx, dy);
+        double distance = Math.max(straightDistance, field[cell]);
+
+        // Direction of travel follows the steepest descent of the distance field, or the target itself once close.
+        int bestNeighbor = cell;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int r = row + dr;
+                int c = column + dc;
+                if (r >= 0 && r < rows && c >= 0 && c < columns && field[r * columns + c] < field[bestNeighbor]) {
+                    bestNeighbor = r * columns + c;
+                }
+            }
+        }
+        if (bestNeighbor != cell) {
+            dx = ((bestNeighbor % columns) - column) * nodeSize;
+            dy = ((bestNeighbor / columns) - row) * nodeSize;
+        }
+        double directionNorm = Math.hypot(dx, dy);
+        double approachVelocity = directionNorm > 1e-6
+            ? (fieldVelocity.vxMetersPerSecond * dx + fieldVelocity.vyMetersPerSecond * dy) / directionNorm
+            : 0.0;
+
+        double headingError = MathUtil.angleModulus(targetHeading[index] - pose.getRotation().getRadians());
+        double angularApproachVelocity = headingError >= 0
+            ? fieldVelocity.omegaRadiansPerSecond
+            : -fieldVelocity.omegaRadiansPerSecond;
+
+        double translationTime = profileTime(distance, approachVelocity, maxVelocity, maxAcceleration);
+        double rotationTime = profileTime(Math.abs(headingError), angularApproachVelocity, maxAngularVelocity, maxAngularAcceleration);
+        return Math.max(translationTime, rotationTime);
+    }
+
+    /**
+     * Time of a trapezoidal profile that covers a distance and ends at rest.
+     * @param distance        Distance to cover.
+     * @param initialVelocity Initial velocity along the direction of travel, negative if moving away.
+     * @param maxVelocity     Maximum velocity.
+     * @param maxAcceleration Maximum acceleration.
+     * @return Profile duration, in seconds.
+     */
+    private static double profileTime(double distance, double initialVelocity, double maxVelocity, double maxAcceleration) {
+        double time = 0.0;
+        double v0 = Math.min(initialVelocity, maxVelocity);
+
+        // Moving away from the target, stop first and add the distance travelled while stopping.
+        if (v0 < 0) {
+            time += -v0 / maxAcceleration;
+            distance += v0 * v0 / (2 * maxAcceleration);
+            v0 = 0;
+        }
+
+        double accelDistance = (maxVelocity * maxVelocity - v0 * v0) / (2 * maxAcceleration);
+        double decelDistance = maxVelocity * maxVelocity / (2 * maxAcceleration);
+
+        if (accelDistance + decelDistance <= distance) {
+            return time + (maxVelocity - v0) / maxAcceleration
+                        + maxVelocity / maxAcceleration
+                        + (distance - accelDistance - decelDistance) / maxVelocity;
+        }
+
+        // Too fast to stop in time, the overshoot has to be driven back.
+        double stoppingDistance = v0 * v0 / (2 * maxAcceleration);
+        if (stoppingDistance > distance) {
+            double overshoot = stoppingDistance - distance;
+            return time + v0 / maxAcceleration + 2 * Math.sqrt(overshoot / maxAcceleration);
+        }
+
+        double peakVelocity = Math.sqrt((2 * maxAcceleration * distance + v0 * v0) / 2);
+        return time + (peakVelocity - v0) / maxAcceleration + peakVelocity / maxAcceleration;
+    }
+
+    /**
+     * Computes the obstacle-aware distance from every cell to a target with an 8-connected Dijkstra search. Obstacle
+     * cells remain traversable at a penalty, so a target or robot inside an inflated obstacle still gets a finite value.
+     * @param grid Navigation grid, only its static obstacles are used since the fields are never recomputed.
+     * @param x    Target X position, in meters.
+     * @param y    Target Y position, in meters.
+     * @return Distance field, in meters.
+     */
+    private float[] computeDistanceField(NavigationGrid grid, double x, double y) {
+        float[] field = new float[rows * columns];
+        Arrays.fill(field, Float.POSITIVE_INFINITY);
+
+        int seedColumn = MathUtil.clamp((int) (x / nodeSize), 0, columns - 1);
+        int seedRow = MathUtil.clamp((int) (y / nodeSize), 0, rows - 1);
+        int seed = seedRow * columns + seedColumn;
+
+        // Queue entries pack a non-negative float distance into the high bits, which keeps the ordering of the distance.
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        field[seed] = 0f;
+        queue.add(((long) Float.floatToIntBits(0f) << 32) | seed);
+
+        while (!queue.isEmpty()) {
+            long entry = queue.poll();
+            int cell = (int) entry;
+            float distance = Float.intBitsToFloat((int) (entry >>> 32));
+            if (distance > field[cell]) {
+                continue;
+            }
+
+            int row = cell / columns;
+            int column = cell % columns;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int r = row + dr;
+                    int c = column + dc;
+                    if ((dr == 0 && dc == 0) || r < 0 || r >= rows || c < 0 || c >= columns) {
+                        continue;
+                    }
+
+                    int neighbor = r * columns + c;
+                    double step = (dr != 0 && dc != 0) ? Math.sqrt(2) * nodeSize : nodeSize;
+                    if (grid.isStaticBlocked(neighbor) || grid.isStaticBlocked(cell)) {
+                        step *= OBSTACLE_PENALTY;
+                    }
+
+                    float candidate = (float) (distance + step);
+                    if (candidate < field[neighbor]) {
+                        field[neighbor] = candidate;
+                        queue.add(((long) Float.floatToIntBits(candidate) << 32) | neighbor);
+                    }
+                }
+            }
+        }
+        return field;
+    }
+}
@@ -4,6 +4,7 @@ import static edu.wpi.first.units.Units.Microseconds;
 import static edu.wpi.first.units.Units.Milliseconds;
 import static edu.wpi.first.units.Units.Seconds;
 
+import edu.wpi.first.apriltag.AprilTag;
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.Matrix;
@@ -23,10 +24,16 @@ import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.Alert.AlertType;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+import frc.robot.Constants.TelemetryConstants;
 import frc.robot.Robot;
+import frc.robot.utils.DriveRecorder;
+import frc.robot.utils.JitWarmup;
+import frc.robot.utils.LoopWatchdog;
+import frc.robot.utils.TelemetryScheduler;
 import java.awt.Desktop;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -48,6 +55,12 @@ public class VisionUtils {
     /** AprilTag Field Layout of the year. */
     public static final AprilTagFieldLayout fieldLayout = AprilTagFieldLayout.loadField(AprilTagFields.k2025Reefscape);
 
+    /** Field poses of the AprilTags indexed by ID, null for unused IDs, so tracked targets need no lookup. */
+    private static final Pose2d[] tagPoses = createTagPoses();
+
+    /** AprilTag seen in the synthetic frames used to warm up the pose estimation, see {@link Cameras#warmup}. */
+    private static final int WARMUP_TAG_ID = 18;
+
     /** Ambiguity defined as a value between (0,1). Used in {@link VisionUtils#filterPose}. */
     private final double maximumAmbiguity = 0.25;
 
@@ -63,14 +76,35 @@ public class VisionUtils {
     /** Field from {@link swervelib.SwerveDrive#field} */
     private Field2d field2d;
 
+    /** Estimated pose of each camera from the last {@link #updateCameras}, by ordinal. */
+    @SuppressWarnings("unchecked")
+    private final Optional<EstimatedRobotPose>[] estimates = new Optional[Cameras.values().length];
+
+    /** Recorder of the vision measurements, may be null. */
+    private DriveRecorder recorder;
+
+    /** Telemetry channel for the tracked targets on {@link #field2d}. */
+    private TelemetryScheduler.FieldObjectChannel trackedTargetsChannel;
+
+    /** Telemetry channel for the vision estimation on the simulation debug field. */
+    private TelemetryScheduler.FieldObjectChannel visionEstimationChannel;
+
     /**
      * Constructor for the VisionUtils class.
-     * @param currentPose Current pose supplier, should reference {@link SwerveDrive#getPose()}
+     * @param currentPose Current pose supplier, should reference the pose of the latest robot state
      * @param field Current field, should be {@link SwerveDrive#field}
+     * @param recorder Recorder of the vision measurements, or null to not record them.
      */
-    public VisionUtils(Supplier<Pose2d> currentPose, Field2d field) {
+    public VisionUtils(Supplier<Pose2d> currentPose, Field2d field, DriveRecorder recorder) {
         this.currentPose = currentPose;
         this.field2d = field;
+        this.recorder = recorder;
+        Arrays.fill(estimates, Optional.empty());
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("Vision", "Vision", TelemetryConstants.VISION_PERIOD);
+        trackedTargetsChannel = telemetry.addFieldObject(field2d.getObject("tracked targets"),
+                                                         TelemetryConstants.TRACKED_TARGETS_PERIOD);
 
         if (Robot.isSimulation()) {
             visionSim = new VisionSystemSim("Vision");
@@ -80,8 +114,36 @@ public class VisionUtils {
                 camera.addToVisionSim(visionSim);
             }
 
+            visionEstimationChannel = telemetry.addFieldObject(visionSim.getDebugField().getObject("VisionEstimation"));
+
             openSimCameraViews();
         }
+
+        // Results taken from each camera queue by the last update, reported with loop overruns.
+        for (Cameras camera : Cameras.values()) {
+            LoopWatchdog.getInstance().addGauge("Vision " + camera.name() + " results", () -> camera.resultsList.size());
+        }
+
+        long[] frame = {1};
+        JitWarmup.getInstance().register("Vision", () -> {
+            long sequence = frame[0]++;
+            for (Cameras camera : Cameras.values()) {
+                JitWarmup.consume(camera.warmup(sequence));
+            }
+        });
+    }
+
+    /** Converts the AprilTag poses of {@link #fieldLayout} to field poses indexed by ID. */
+    private static Pose2d[] createTagPoses() {
+        int maxId = 0;
+        for (AprilTag tag : fieldLayout.getTags()) {
+            maxId = Math.max(maxId, tag.ID);
+        }
+        Pose2d[] poses = new Pose2d[maxId + 1];
+        for (AprilTag tag : fieldLayout.getTags()) {
+            poses[tag.ID] = tag.pose.toPose2d();
+        }
+        return poses;
     }
 
     /**
@@ -136,10 +198,11 @@ public class VisionUtils {
     // }
 
     /**
-     * Update the pose estimation inside of {@link SwerveDrive} with all of the given poses.
-     * @param swerveDrive {@link SwerveDrive} instance.
+     * Reads the latest results of every camera and estimates the robot pose from each. Does not touch the pose
+     * estimator of the {@link SwerveDrive}, so it can run concurrently with the odometry update, except in simulation.
+     * @param swerveDrive {@link SwerveDrive} instance, for the simulated drivetrain pose.
      */
-    public void updatePoseEstimation(SwerveDrive swerveDrive) {
+    public void updateCameras(SwerveDrive swerveDrive) {
         if (SwerveDriveTelemetry.isSimulation && swerveDrive.getSimulationDriveTrainPose().isPresent()) {
             /*
             * In the maple-sim, odometry is simulated using encoder values, accounting for factors like skidding and drifting.
@@ -151,7 +214,17 @@ public class VisionUtils {
             visionSim.update(swerveDrive.getSimulationDriveTrainPose().get());
         }
         for (Cameras camera : Cameras.values()) {
-            Optional<EstimatedRobotPose> poseEst = getEstimatedGlobalPose(camera);
+            estimates[camera.ordinal()] = getEstimatedGlobalPose(camera);
+        }
+    }
+
+    /**
+     * Update the pose estimation inside of {@link SwerveDrive} with the poses of the last {@link #updateCameras}.
+     * @param swerveDrive {@link SwerveDrive} instance.
+     */
+    public void updatePoseEstimation(SwerveDrive swerveDrive) {
+        for (Cameras camera : Cameras.values()) {
+            Optional<EstimatedRobotPose> poseEst = estimates[camera.ordinal()];
             if (poseEst.isPresent()) {
                 var pose = poseEst.get();
                 swerveDrive.addVisionMeasurement(
@@ -159,6 +232,10 @@ public class VisionUtils {
                     Timer.getFPGATimestamp(), // TODO: Temporary; changed from pose.timestampSeconds
                     camera.curStdDevs
                 );
+                if (recorder != null) {
+                    recorder.recordVision(camera.ordinal(), pose.timestampSeconds, pose.estimatedPose.toPose2d(),
+                                          camera.curStdDevs, pose.targetsUsed.size());
+                }
             }
         }
     }
@@ -174,16 +251,10 @@ public class VisionUtils {
     public Optional<EstimatedRobotPose> getEstimatedGlobalPose(Cameras camera) {
         Optional<EstimatedRobotPose> poseEst = camera.getEstimatedGlobalPose();
         if (Robot.isSimulation()) {
-            Field2d debugField = visionSim.getDebugField();
             // Uncomment to enable outputting of vision targets in sim.
             poseEst.ifPresentOrElse(
-                est ->
-                    debugField
-                        .getObject("VisionEstimation")
-                        .setPose(est.estimatedPose.toPose2d()),
-                () -> {
-                    debugField.getObject("VisionEstimation").setPoses();
-                });
+                est -> visionEstimationChannel.set(est.estimatedPose.toPose2d()),
+                () -> visionEstimationChannel.set(List.of()));
         }
         return poseEst;
     }
@@ -279,25 +350,19 @@ public class VisionUtils {
 
     /** Update the {@link Field2d} to include tracked targets. */
     public void updateVisionField() {
-        List<PhotonTrackedTarget> targets = new ArrayList<PhotonTrackedTarget>();
+        trackedTargetsChannel.begin();
         for (Cameras camera : Cameras.values()) {
             if (!camera.resultsList.isEmpty()) {
-                PhotonPipelineResult latest = camera.resultsList.get(0);
-                if (latest.hasTargets()) {
-                    targets.addAll(latest.targets);
+                List<PhotonTrackedTarget> targets = camera.resultsList.get(0).targets;
+                for (int i = 0; i < targets.size(); i++) {
+                    int id = targets.get(i).getFiducialId();
+                    if (id >= 0 && id < tagPoses.length && tagPoses[id] != null) {
+                        trackedTargetsChannel.add(tagPoses[id]);
+                    }
                 }
             }
         }
-
-        List<Pose2d> poses = new ArrayList<>();
-        for (PhotonTrackedTarget target : targets) {
-            if (fieldLayout.getTagPose(target.getFiducialId()).isPresent()) {
-                Pose2d targetPose = fieldLayout.getTagPose(target.getFiducialId()).get().toPose2d();
-                poses.add(targetPose);
-            }
-        }
-
-        field2d.getObject("tracked targets").setPoses(poses);
+        trackedTargetsChannel.end();
     }
 
     /** Camera Enum to select each camera. */
@@ -351,6 +416,9 @@ public class VisionUtils {
         /** Last read from the camera timestamp to prevent lag due to slow data fetches. */
         private double lastReadTimestamp = Microseconds.of(NetworkTablesJNI.now()).in(Seconds);
 
+        /** Pose estimator fed with synthetic frames by {@link #warmup}, created on first use. */
+        private PhotonPoseEstimator warmupEstimator;
+
         /**
          * Construct a Photon Camera class with help. Standard deviations are fake values, experiment and determine
          * estimation noise on an actual robot.
@@ -402,6 +470,30 @@ public class VisionUtils {
             }
         }
 
+        /**
+         * Runs the pose estimator and the standard deviation heuristic on a synthetic frame of a tag in front of the
+         * camera, for the {@link JitWarmup}. Uses its own estimator, the camera state is left untouched.
+         * @param sequence Increasing frame number, also used as the synthetic capture time.
+         * @return The x standard deviation of the synthetic estimate.
+         */
+        public double warmup(long sequence) {
+            if (warmupEstimator == null) {
+                warmupEstimator = new PhotonPoseEstimator(VisionUtils.fieldLayout,
+                                                          PoseStrategy.LOWEST_AMBIGUITY,
+                                                          robotToCamTransform);
+            }
+
+            // Tag between 2 and 3 meters in front of the camera, facing it.
+            Transform3d cameraToTag = new Transform3d(new Translation3d(2.0 + (sequence % 100) * 0.01, 0.1, 0.0),
+                                                      new Rotation3d(0, 0, Math.PI));
+            PhotonTrackedTarget target = new PhotonTrackedTarget(0, 0, 1.0, 0, WARMUP_TAG_ID, -1, -1f,
+                                                                 cameraToTag, cameraToTag, 0.1, List.of(), List.of());
+            PhotonPipelineResult result = new PhotonPipelineResult(sequence, sequence * 20000, sequence * 20000 + 1000,
+                                                                   0, List.of(target));
+
+            return getEstimationStdDevs(warmupEstimator.update(result), result.getTargets()).get(0, 0);
+        }
+
         /**
          * Get the result with the least ambiguity from the best tracked target within the Cache. This may not be the most
          * recent result!
@@ -476,7 +568,7 @@ public class VisionUtils {
             Optional<EstimatedRobotPose> visionEst = Optional.empty();
             for (var change : resultsList) {
                 visionEst = poseEstimator.update(change);
-                updateEstimationStdDevs(visionEst, change.getTargets());
+                curStdDevs = getEstimationStdDevs(visionEst, change.getTargets());
             }
             estimatedRobotPose = visionEst;
         }
@@ -486,11 +578,12 @@ public class VisionUtils {
          * on number of tags, estimation strategy, and distance from the tags.
          * @param estimatedPose The estimated pose to guess standard deviations for.
          * @param targets       All targets in this camera frame
+         * @return The standard deviations of the estimated pose.
          */
-        private void updateEstimationStdDevs(Optional<EstimatedRobotPose> estimatedPose, List<PhotonTrackedTarget> targets) {
+        private Matrix<N3, N1> getEstimationStdDevs(Optional<EstimatedRobotPose> estimatedPose, List<PhotonTrackedTarget> targets) {
             if (estimatedPose.isEmpty()) {
                 // No pose input. Default to single-tag std devs
-                curStdDevs = singleTagStdDevs;
+                return singleTagStdDevs;
             } else {
                 // Pose present. Start running Heuristic
                 var estStdDevs = singleTagStdDevs;
@@ -514,7 +607,7 @@ public class VisionUtils {
 
                 if (numTags == 0) {
                     // No tags visible. Default to single-tag std devs
-                    curStdDevs = singleTagStdDevs;
+                    return singleTagStdDevs;
                 } else {
                     // One or more tags visible, run the full heuristic.
                     avgDist /= numTags;
@@ -528,7 +621,7 @@ public class VisionUtils {
                     } else {
                         estStdDevs = estStdDevs.times(1 + (avgDist * avgDist / 30));
                     }
-                    curStdDevs = estStdDevs;
+                    return estStdDevs;
                 }
             }
         }
@@ -0,0 +1,289 @@
+package frc.robot.utils;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.config.RobotConfig;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants;
+import frc.robot.Robot;
+
+/**
+ * Loads the PathPlanner {@code settings.json} and the YAGSL {@code deploy/swerve} configuration once, checks them
+ * against each other and against {@link Constants}, and holds the result as an immutable {@link Snapshot}.
+ * <p>
+ * Loading only reads files, so it can run on a startup worker thread. Mismatches are reported on the main thread by
+ * {@link #start()} and {@link #periodic()}, which raise the Alert. In simulation, {@link #start()} also watches the
+ * deploy directories and the snapshot is reloaded when a file changes. Consumers that call {@link #get()} each time see
+ * the reloaded values, while objects already configured keep their own copy.
+ */
+public final class ConfigRegistry {
+
+    /** Module keys of the PathPlanner settings, in the order of the modules in {@code swervedrive.json}. */
+    private static final String[] MODULE_KEYS = {"fl", "fr", "bl", "br"};
+
+    /** ConfigRegistry instance. */
+    private static ConfigRegistry instance;
+
+    /** Current configuration snapshot. */
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /** Alert raised while the configuration files disagree, created on the main thread by {@link #start()}. */
+    private Alert mismatchAlert;
+
+    /** Snapshot whose mismatches were last reported. Main thread only. */
+    private Snapshot reported;
+
+    /**
+     * Constructor for the ConfigRegistry class. Only reads the files.
+     * @throws RuntimeException If the configuration could not be loaded.
+     */
+    private ConfigRegistry() {
+        try {
+            snapshot.set(load());
+        } catch (Exception e) {
+            System.err.println("Failed to load configuration from Deploy Settings.");
+            e.printStackTrace();
+            throw new RuntimeException("Error loading configuration.", e);
+        }
+    }
+
+    /**
+     * Returns the ConfigRegistry instance, loading the configuration on first use.
+     * @return The ConfigRegistry instance.
+     */
+    public static synchronized ConfigRegistry getInstance() {
+        if (instance == null) {
+            instance = new ConfigRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Reports the mismatches of the loaded configuration and, in simulation, starts watching the files. Call once from
+     * the main thread after startup.
+     */
+    public void start() {
+        if (mismatchAlert != null) {
+            return;
+        }
+        mismatchAlert = new Alert("Configuration mismatch.", AlertType.kWarning);
+        periodic();
+
+        if (Robot.isSimulation()) {
+            startFileWatcher();
+        }
+    }
+
+    /** Reports the mismatches of a reloaded configuration. Call every loop from the main thread. */
+    public void periodic() {
+        Snapshot current = snapshot.get();
+        if (current == reported || mismatchAlert == null) {
+            return;
+        }
+        reported = current;
+
+        for (String mismatch : current.mismatches) {
+            DriverStation.reportWarning("Configuration mismatch: " + mismatch, false);
+        }
+        mismatchAlert.setText("Configuration mismatch: " + String.join("; ", current.mismatches));
+        mismatchAlert.set(!current.mismatches.isEmpty());
+    }
+
+    /**
+     * Returns the current configuration snapshot.
+     * @return The current {@link Snapshot}.
+     */
+    public Snapshot get() {
+        return snapshot.get();
+    }
+
+    /**
+     * Loads and validates every configuration file.
+     * @return A new snapshot.
+     * @throws Exception If a file could not be read or parsed.
+     */
+    private static Snapshot load() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        File deploy = Filesystem.getDeployDirectory();
+
+        JsonNode settings = mapper.readTree(new File(deploy, "pathplanner/settings.json"));
+        JsonNode swerve = mapper.readTree(new File(deploy, "swerve/swervedrive.json"));
+        JsonNode physical = mapper.readTree(new File(deploy, "swerve/modules/physicalproperties.json"));
+
+        List<JsonNode> modules = new ArrayList<>();
+        for (JsonNode module : swerve.get("modules")) {
+            modules.add(mapper.readTree(new File(deploy, "swerve/modules/" + module.asText())));
+        }
+
+        return new Snapshot(RobotConfig.fromGUISettings(), settings, physical, modules);
+    }
+
+    /**
+     * Reloads the snapshot whenever a file in the deploy configuration directories changes, on its own thread. Its
+     * mismatches are reported by the next {@link #periodic()}. Simulation only.
+     */
+    private void startFileWatcher() {
+        Thread watcher = new Thread(() -> {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                File deploy = Filesystem.getDeployDirectory();
+                for (String directory : new String[] {"pathplanner", "swerve", "swerve/modules"}) {
+                    new File(deploy, directory).toPath().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+
+                while (!Thread.currentThread().isInterrupted()) {
+                    WatchKey key = watchService.take();
+                    boolean changed = key.pollEvents().stream()
+                        .anyMatch(event -> event.context().toString().endsWith(".json"));
+                    key.reset();
+
+                    if (changed) {
+                        try {
+                            snapshot.set(load());
+                            System.out.println("Reloaded configuration from Deploy Settings.");
+                        } catch (Exception e) {
+                            // Keep the previous snapshot, the file may still be in the middle of being written.
+                            System.err.println("Failed to reload configuration, keeping previous values.");
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, "ConfigRegistry");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /** Immutable view of the robot configuration at one point in time. */
+    public static final class Snapshot {
+
+        /** RobotConfig generated by PathPlanner from {@code settings.json}. */
+        public final RobotConfig robotConfig;
+
+        /** Maximum drive speed from {@code settings.json}, in meters per second. */
+        public final double maxDriveSpeed;
+
+        /** Default path constraints from {@code settings.json}, in meters and seconds. */
+        public final double defaultMaxVelocity, defaultMaxAcceleration;
+
+        /** Robot mass from {@code settings.json}, in kilograms. */
+        public final double robotMass;
+
+        /** Wheel coefficient of friction from {@code settings.json}. */
+        public final double wheelCOF;
+
+        /** Drive gearing from {@code settings.json}. */
+        public final double driveGearing;
+
+        /** Drive wheel radius from {@code settings.json}, in meters. */
+        public final double driveWheelRadius;
+
+        /** Drive current limit from {@code settings.json}, in amps. */
+        public final double driveCurrentLimit;
+
+        /** Robot bumper dimensions from {@code settings.json}, in meters. */
+        public final double robotWidth, robotLength;
+
+        /** Module locations from {@code settings.json}, in meters, ordered front left, front right, back left, back right. */
+        public final List<Translation2d> moduleLocations;
+
+        /** Module locations from {@code deploy/swerve/modules}, in meters, in the order of {@code swervedrive.json}. */
+        public final List<Translation2d> swerveModuleLocations;
+
+        /** Human readable description of every disagreement between the configuration sources. */
+        public final List<String> mismatches;
+
+        /**
+         * Constructor for the Snapshot class.
+         * @param robotConfig RobotConfig generated by PathPlanner.
+         * @param settings    Parsed {@code settings.json}.
+         * @param physical    Parsed {@code physicalproperties.json}.
+         * @param modules     Parsed module files, in the order of {@code swervedrive.json}.
+         */
+        private Snapshot(RobotConfig robotConfig, JsonNode settings, JsonNode physical, List<JsonNode> modules) {
+            this.robotConfig = robotConfig;
+
+            maxDriveSpeed = settings.get("maxDriveSpeed").asDouble();
+            defaultMaxVelocity = settings.get("defaultMaxVel").asDouble();
+            defaultMaxAcceleration = settings.get("defaultMaxAccel").asDouble();
+            robotMass = settings.get("robotMass").asDouble();
+            wheelCOF = settings.get("wheelCOF").asDouble();
+            driveGearing = settings.get("driveGearing").asDouble();
+            driveWheelRadius = settings.get("driveWheelRadius").asDouble();
+            driveCurrentLimit = settings.get("driveCurrentLimit").asDouble();
+            robotWidth = settings.get("robotWidth").asDouble();
+            robotLength = settings.get("robotLength").asDouble();
+
+            List<Translation2d> locations = new ArrayList<>();
+            for (String key : MODULE_KEYS) {
+                locations.add(new Translation2d(settings.get(key + "ModuleX").asDouble(),
+                                                settings.get(key + "ModuleY").asDouble()));
+            }
+            moduleLocations = Collections.unmodifiableList(locations);
+
+            List<Translation2d> swerveLocations = new ArrayList<>();
+            for (JsonNode module : modules) {
+                swerveLocations.add(new Translation2d(Units.inchesToMeters(module.get("location").get("front").asDouble()),
+                                                      Units.inchesToMeters(module.get("location").get("left").asDouble())));
+            }
+            swerveModuleLocations = Collections.unmodifiableList(swerveLocations);
+
+            List<String> found = new ArrayList<>();
+            check(found, "maxDriveSpeed vs Constants.MAX_SPEED", maxDriveSpeed, Constants.MAX_SPEED, 0.05);
+            check(found, "robotMass vs Constants.ROBOT_MASS", robotMass, Constants.ROBOT_MASS, 0.5);
+            check(found, "wheelCOF vs wheelGripCoefficientOfFriction", wheelCOF,
+                  physical.get("wheelGripCoefficientOfFriction").asDouble(), 0.01);
+            check(found, "driveGearing vs conversionFactors.drive.gearRatio", driveGearing,
+                  physical.get("conversionFactors").get("drive").get("gearRatio").asDouble(), 0.01);
+            check(found, "driveWheelRadius vs conversionFactors.drive.diameter", driveWheelRadius,
+                  Units.inchesToMeters(physical.get("conversionFactors").get("drive").get("diameter").asDouble()) / 2, 0.001);
+            check(found, "driveCurrentLimit vs currentLimit.drive", driveCurrentLimit,
+                  physical.get("currentLimit").get("drive").asDouble(), 1.0);
+
+            if (swerveLocations.size() != locations.size()) {
+                found.add("settings.json has " + locations.size() + " modules, swervedrive.json has " + swerveLocations.size());
+            } else {
+                for (int i = 0; i < locations.size(); i++) {
+                    Translation2d settingsLocation = locations.get(i);
+                    Translation2d swerveLocation = swerveLocations.get(i);
+                    check(found, MODULE_KEYS[i] + "ModuleX vs location.front", settingsLocation.getX(), swerveLocation.getX(), 0.005);
+                    check(found, MODULE_KEYS[i] + "ModuleY vs location.left", settingsLocation.getY(), swerveLocation.getY(), 0.005);
+                }
+            }
+            mismatches = Collections.unmodifiableList(found);
+        }
+
+        /**
+         * Records a mismatch if two values differ by more than a tolerance.
+         * @param found     List of mismatches to add to.
+         * @param name      Name of the compared values.
+         * @param expected  Value from the first source.
+         * @param actual    Value from the second source.
+         * @param tolerance Maximum allowed difference.
+         */
+        private static void check(List<String> found, String name, double expected, double actual, double tolerance) {
+            if (Math.abs(expected - actual) > tolerance) {
+                found.add(name + " (" + expected + " != " + actual + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package frc.robot.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Records the drivetrain to a compact binary file next to the WPILib data logs, for post-match analysis.
+ * <p>
+ * The module states, the gyro and the fused pose are recorded from the {@link RobotState} once per odometry update,
+ * together with the commanded setpoint, so a record never mixes two updates and the recorder never reads hardware.
+ * The odometry runs once per robot loop to stay synchronized with the vision fusion, so drive records are limited to
+ * the loop rate, 50 Hz. Sampling faster would read the YAGSL modules and the gyro off the loop, concurrently with the
+ * odometry. Vision measurements and command changes are recorded as they happen.
+ * <p>
+ * Records are packed into a fixed pool of buffers that a background thread writes to the file, so no file I/O happens
+ * on the robot threads. When the writer falls behind and the pool is exhausted, records are dropped and counted
+ * instead of allocating more memory.
+ * <p>
+ * File format, little endian: the {@value #MAGIC} magic and a version byte, then records made of a type byte, the
+ * payload length as an unsigned short, the FPGA timestamp in microseconds as a long, and the payload.
+ * <ul>
+ *  <li>{@link #DRIVE}: 4 module (angle rad, speed m/s) pairs, commanded robot relative (vx, vy, omega), gyro yaw
+ *  (rad) and yaw rate (rad/s), fused pose (x, y, theta), all floats.</li>
+ *  <li>{@link #VISION}: camera index byte, tag count byte, capture timestamp (s) as a double, estimated pose
+ *  (x, y, theta) and std devs (x, y, theta) as floats.</li>
+ *  <li>{@link #COMMAND}: robot mode byte (0 disabled, 1 autonomous, 2 teleop, 3 test), then the name of the drivebase
+ *  command in UTF-8, empty when none.</li>
+ * </ul>
+ */
+public final class DriveRecorder {
+
+    /** File magic. */
+    public static final String MAGIC = "RADL";
+
+    /** File format version. */
+    public static final byte VERSION = 1;
+
+    /** Record types. */
+    public static final byte DRIVE = 1, VISION = 2, COMMAND = 3;
+
+    /** Bytes before the payload of a record: type, payload length and timestamp. */
+    private static final int RECORD_HEADER = 1 + 2 + 8;
+
+    /** Modules recorded in a {@link #DRIVE} record. */
+    private static final int MODULES = 4;
+
+    private final Supplier<ChassisSpeeds> setpoint;
+
+    /** Buffers ready to be filled, and buffers waiting to be written. Together they hold the whole pool. */
+    private final BlockingQueue<ByteBuffer> free, full;
+
+    /** Buffer being filled, null when the pool is exhausted. Guarded by this. */
+    private ByteBuffer current;
+
+    /** FPGA time the current buffer was last handed to the writer, in microseconds. Guarded by this. */
+    private long lastHandoff;
+
+    /** Records dropped because the pool was exhausted. Guarded by this. */
+    private long dropped;
+
+    /** Last recorded mode and command, to only record changes. Main thread only. */
+    private int lastMode = -1;
+    private String lastCommand;
+
+    /**
+     * Constructor for the DriveRecorder class. Opens the file and starts the writer.
+     * @param setpoint Supplier of the last commanded robot relative speeds, called from {@link #recordDrive}.
+     */
+    public DriveRecorder(Supplier<ChassisSpeeds> setpoint) {
+        this.setpoint = setpoint;
+
+        free = new ArrayBlockingQueue<>(TelemetryConstants.RECORDER_BUFFER_COUNT);
+        full = new ArrayBlockingQueue<>(TelemetryConstants.RECORDER_BUFFER_COUNT);
+        for (int i = 0; i < TelemetryConstants.RECORDER_BUFFER_COUNT; i++) {
+            free.add(ByteBuffer.allocateDirect(TelemetryConstants.RECORDER_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        current = free.poll();
+        current.put(MAGIC.getBytes(StandardCharsets.US_ASCII)).put(VERSION);
+
+        String name = "drive_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".bin";
+        Thread writer = new Thread(() -> write(Path.of(DataLogManager.getLogDir(), name)), "DriveRecorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a vision measurement given to the pose estimator.
+     * @param camera    Index of the camera.
+     * @param timestamp Capture timestamp of the measurement, in seconds.
+     * @param pose      Estimated robot pose.
+     * @param stdDevs   Standard deviations of the measurement (x, y, theta).
+     * @param tagCount  Number of AprilTags used.
+     */
+    public synchronized void recordVision(int camera, double timestamp, Pose2d pose, Matrix<N3, N1> stdDevs,
+                                          int tagCount) {
+        ByteBuffer buffer = begin(VISION, 2 + 8 + 6 * 4);
+        if (buffer == null) {
+            return;
+        }
+        buffer.put((byte) camera).put((byte) Math.min(tagCount, 255)).putDouble(timestamp);
+        putPose(buffer, pose);
+        buffer.putFloat((float) stdDevs.get(0, 0)).putFloat((float) stdDevs.get(1, 0)).putFloat((float) stdDevs.get(2, 0));
+    }
+
+    /**
+     * Records the robot mode and the command running on the drivebase, if either changed. Call every loop from the
+     * main thread.
+     * @param command Command running on the drivebase, or null.
+     */
+    public void recordCommand(String command) {
+        int mode = DriverStation.isDisabled() ? 0
+                 : DriverStation.isAutonomous() ? 1
+                 : DriverStation.isTest() ? 3 : 2;
+        if (mode == lastMode && Objects.equals(command, lastCommand)) {
+            return;
+        }
+        lastMode = mode;
+        lastCommand = command;
+
+        byte[] name = command == null ? new byte[0] : command.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, 255);
+        synchronized (this) {
+            ByteBuffer buffer = begin(COMMAND, 1 + length);
+            if (buffer != null) {
+                buffer.put((byte) mode).put(name, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records dropped because the writer fell behind.
+     * @return The number of dropped records.
+     */
+    public synchronized long getDroppedRecords() {
+        return dropped;
+    }
+
+    /**
+     * Records the drivetrain. Call once per odometry update, with the {@link RobotState} it published.
+     * @param state The robot state of the update.
+     */
+    public void recordDrive(RobotState state) {
+        SwerveModuleState[] states = state.moduleStates;
+        ChassisSpeeds commanded = setpoint.get();
+
+        synchronized (this) {
+            ByteBuffer buffer = begin(DRIVE, (2 * MODULES + 3 + 2 + 3) * 4);
+            if (buffer != null) {
+                for (int i = 0; i < MODULES; i++) {
+                    boolean present = i < states.length;
+                    buffer.putFloat(present ? (float) states[i].angle.getRadians() : 0f)
+                          .putFloat(present ? (float) states[i].speedMetersPerSecond : 0f);
+                }
+                buffer.putFloat((float) commanded.vxMetersPerSecond)
+                      .putFloat((float) commanded.vyMetersPerSecond)
+                      .putFloat((float) commanded.omegaRadiansPerSecond)
+                      .putFloat((float) state.gyroYaw.getRadians())
+                      .putFloat((float) state.yawRate);
+                putPose(buffer, state.pose);
+            }
+
+            // Hand over partially filled buffers too, so a brownout loses at most one flush period.
+            if (current != null && current.position() > 0
+                && RobotController.getFPGATime() - lastHandoff > TelemetryConstants.RECORDER_FLUSH_PERIOD * 1e6) {
+                handoff();
+            }
+        }
+    }
+
+    /**
+     * Starts a record, switching buffers when the current one is full.
+     * @return The buffer to write the payload to, or null if the record is dropped.
+     */
+    private ByteBuffer begin(byte type, int payload) {
+        if (current != null && current.remaining() < RECORD_HEADER + payload) {
+            handoff();
+        }
+        if (current == null) {
+            current = free.poll();
+            if (current == null) {
+                dropped++;
+                return null;
+            }
+        }
+        return current.put(type).putShort((short) payload).putLong(RobotController.getFPGATime());
+    }
+
+    /** Queues the current buffer for the writer. */
+    private void handoff() {
+        // The pool holds as many buffers as the queue does, so this never fails.
+        full.add(current);
+        current = free.poll();
+        lastHandoff = RobotController.getFPGATime();
+    }
+
+    /** Writes queued buffers to the file, on the writer thread. After a write failure, buffers are discarded. */
+    private void write(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            DriverStation.reportError("Drive recorder cannot open " + path + ": " + e.getMessage(), false);
+        }
+
+        while (true) {
+            ByteBuffer buffer;
+            try {
+                buffer = full.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            buffer.flip();
+            if (channel != null) {
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    DriverStation.reportError("Drive recorder stopped, write failed: " + e.getMessage(), false);
+                    channel = null;
+                }
+            }
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+
+    /** Writes a pose as (x, y, theta) floats. */
+    private static void putPose(ByteBuffer buffer, Pose2d pose) {
+        buffer.putFloat((float) pose.getX())
+              .putFloat((float) pose.getY())
+              .putFloat((float) pose.getRotation().getRadians());
+    }
+}
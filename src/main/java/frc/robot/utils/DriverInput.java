@@ -0,0 +1,131 @@
+package frc.robot.utils;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.OperatorConstants;
+
+/**
+ * Shapes the driver joystick axes once per loop, for every drive mode.
+ * <p>
+ * The translation stick gets a radial deadband, so diagonals are not clipped near the center, then its magnitude goes
+ * through the translation response curve and {@link OperatorConstants#SCALE_TRANSLATION}. The rotation axis gets a
+ * scalar deadband and the rotation response curve. Each output is then slew limited. Response curves are blends of a
+ * linear and a cubic response, precomputed into lookup tables.
+ * <p>
+ * The inputs are sampled and shaped on the scheduler button loop, before commands execute, so every axis of a loop
+ * comes from the same sample. Outputs are in [-1, 1] and must not be shaped again by the drive modes.
+ */
+public final class DriverInput {
+
+    private final DoubleSupplier rawX, rawY, rawRotation;
+
+    private final ResponseCurve translationCurve = new ResponseCurve(OperatorConstants.TRANSLATION_EXPO);
+    private final ResponseCurve rotationCurve = new ResponseCurve(OperatorConstants.ROTATION_EXPO);
+
+    private final SlewRateLimiter xLimiter = new SlewRateLimiter(OperatorConstants.TRANSLATION_SLEW_RATE);
+    private final SlewRateLimiter yLimiter = new SlewRateLimiter(OperatorConstants.TRANSLATION_SLEW_RATE);
+    private final SlewRateLimiter rotationLimiter = new SlewRateLimiter(OperatorConstants.ROTATION_SLEW_RATE);
+
+    /** Shaped outputs of the current loop. */
+    private double x, y, rotation;
+
+    /**
+     * Constructor for the DriverInput class. Starts shaping on every scheduler run.
+     * @param rawX        Joystick axis driving forward, positive away from the driver.
+     * @param rawY        Joystick axis driving sideways, positive to the left.
+     * @param rawRotation Joystick axis rotating, positive counterclockwise.
+     */
+    public DriverInput(DoubleSupplier rawX, DoubleSupplier rawY, DoubleSupplier rawRotation) {
+        this.rawX = rawX;
+        this.rawY = rawY;
+        this.rawRotation = rawRotation;
+
+        CommandScheduler.getInstance().getDefaultButtonLoop().bind(this::update);
+    }
+
+    /**
+     * Returns the shaped forward input of this loop.
+     * @return Forward input, in [-1, 1].
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the shaped sideways input of this loop.
+     * @return Sideways input, in [-1, 1].
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the shaped rotation input of this loop.
+     * @return Rotation input, in [-1, 1].
+     */
+    public double getRotation() {
+        return rotation;
+    }
+
+    /** Samples and shapes the inputs. */
+    private void update() {
+        // Start from rest when enabling, instead of slewing from the last input before disable.
+        if (DriverStation.isDisabled()) {
+            xLimiter.reset(0);
+            yLimiter.reset(0);
+            rotationLimiter.reset(0);
+            x = y = rotation = 0;
+            return;
+        }
+
+        double inputX = rawX.getAsDouble();
+        double inputY = rawY.getAsDouble();
+        double magnitude = Math.hypot(inputX, inputY);
+        double shapedX = 0, shapedY = 0;
+        if (magnitude > OperatorConstants.DEADBAND) {
+            double scaled = translationCurve.apply(rescale(magnitude)) * OperatorConstants.SCALE_TRANSLATION;
+            shapedX = inputX / magnitude * scaled;
+            shapedY = inputY / magnitude * scaled;
+        }
+
+        double inputRotation = rawRotation.getAsDouble();
+        double shapedRotation = Math.abs(inputRotation) > OperatorConstants.DEADBAND
+            ? Math.copySign(rotationCurve.apply(rescale(Math.abs(inputRotation))), inputRotation) : 0;
+
+        x = xLimiter.calculate(shapedX);
+        y = yLimiter.calculate(shapedY);
+        rotation = rotationLimiter.calculate(shapedRotation);
+    }
+
+    /** Maps an input magnitude past the deadband to [0, 1], so the output starts from zero at the deadband edge. */
+    private static double rescale(double magnitude) {
+        return Math.min(1.0, (magnitude - OperatorConstants.DEADBAND) / (1.0 - OperatorConstants.DEADBAND));
+    }
+
+    /** A response curve on [0, 1], blending a linear and a cubic response, sampled into a lookup table. */
+    private static final class ResponseCurve {
+        private final double[] table = new double[OperatorConstants.RESPONSE_CURVE_SAMPLES + 1];
+
+        /**
+         * Constructor for the ResponseCurve class.
+         * @param expo Weight of the cubic response, 0 for linear and 1 for cubic.
+         */
+        private ResponseCurve(double expo) {
+            int samples = table.length - 1;
+            for (int i = 0; i <= samples; i++) {
+                double input = (double) i / samples;
+                table[i] = (1 - expo) * input + expo * input * input * input;
+            }
+        }
+
+        /** Interpolates the table at an input in [0, 1]. */
+        private double apply(double input) {
+            double index = input * (table.length - 1);
+            int lower = Math.min((int) index, table.length - 2);
+            return table[lower] + (table[lower + 1] - table[lower]) * (index - lower);
+        }
+    }
+}
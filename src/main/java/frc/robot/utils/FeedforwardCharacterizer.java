@@ -0,0 +1,224 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.CharacterizationConstants;
+import frc.robot.Constants.TelemetryConstants;
+import swervelib.SwerveModule;
+
+/**
+ * Records the drive motors during a SysId routine and fits their feedforward on the robot.
+ * <p>
+ * {@link #sample()} records the applied voltage and velocity of every drive motor once per loop on the main thread,
+ * the thread the SysId routine drives the motors from, into arrays preallocated for
+ * {@link CharacterizationConstants#MAX_SAMPLES} samples. Sampling is limited to the loop rate, 50 Hz, the rate SysId
+ * itself logs and updates the voltage at: sampling faster would read the motors concurrently with the routine. {@link #fit()} then solves the ordinary least squares problem
+ * {@code V = kS sgn(v) + kV v + kA a} for each module, with the acceleration from a central difference over
+ * {@link CharacterizationConstants#ACCELERATION_SPAN} samples. The normal equations are accumulated over small arrays
+ * allocated per fit and solved directly, with a second pass for the coefficient of determination. Samples near
+ * standstill or across a gap between SysId tests are skipped. The fit of all modules pooled is what gets applied.
+ */
+public final class FeedforwardCharacterizer {
+
+    private final SwerveModule[] modules;
+
+    /** Sample timestamps, in seconds, and per module voltages, in volts, and velocities, in meters per second. */
+    private final double[] times = new double[CharacterizationConstants.MAX_SAMPLES];
+    private final float[][] voltages, velocities;
+
+    /** Samples recorded, and whether recording. Main thread only. */
+    private int count;
+    private boolean recording;
+
+    /** Telemetry channels of the fits, per module then pooled. */
+    private final TelemetryScheduler.DoubleArrayChannel[] fitChannels;
+    private final TelemetryScheduler.BooleanChannel validChannel;
+
+    /**
+     * Constructor for the FeedforwardCharacterizer class.
+     * @param modules Swerve modules to characterize.
+     */
+    public FeedforwardCharacterizer(SwerveModule[] modules) {
+        this.modules = modules;
+        voltages = new float[modules.length][CharacterizationConstants.MAX_SAMPLES];
+        velocities = new float[modules.length][CharacterizationConstants.MAX_SAMPLES];
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("Characterization", "Characterization", TelemetryConstants.DASHBOARD_PERIOD);
+        fitChannels = new TelemetryScheduler.DoubleArrayChannel[modules.length + 1];
+        for (int i = 0; i < modules.length; i++) {
+            fitChannels[i] = telemetry.addDoubleArray("Module " + i + " [kS, kV, kA, r2, samples]");
+        }
+        fitChannels[modules.length] = telemetry.addDoubleArray("Pooled [kS, kV, kA, r2, samples]");
+        validChannel = telemetry.addBoolean("Valid");
+    }
+
+    /** Clears the recorded samples and starts recording. */
+    public void start() {
+        count = 0;
+        recording = true;
+    }
+
+    /** Stops recording. */
+    public void stop() {
+        recording = false;
+    }
+
+    /**
+     * Fits the feedforward of each module and of all modules pooled, and publishes the fits.
+     * @return The pooled fit.
+     */
+    public Fit fit() {
+        int pooled = modules.length;
+        double[][] normal = new double[pooled + 1][12];
+        for (int m = 0; m < modules.length; m++) {
+            for (int i = 0; i < count; i++) {
+                double a = acceleration(m, i);
+                if (!Double.isNaN(a)) {
+                    accumulate(normal[m], velocities[m][i], a, voltages[m][i]);
+                    accumulate(normal[pooled], velocities[m][i], a, voltages[m][i]);
+                }
+            }
+        }
+
+        double[][] gains = new double[pooled + 1][];
+        for (int m = 0; m <= pooled; m++) {
+            gains[m] = solve(normal[m]);
+        }
+
+        // Coefficient of determination, from the residuals of each fit.
+        double[] residual = new double[pooled + 1];
+        for (int m = 0; m < modules.length; m++) {
+            for (int i = 0; i < count; i++) {
+                double a = acceleration(m, i);
+                if (!Double.isNaN(a)) {
+                    residual[m] += square(voltages[m][i] - predict(gains[m], velocities[m][i], a));
+                    residual[pooled] += square(voltages[m][i] - predict(gains[pooled], velocities[m][i], a));
+                }
+            }
+        }
+
+        Fit[] fits = new Fit[pooled + 1];
+        for (int m = 0; m <= pooled; m++) {
+            double samples = normal[m][11];
+            double meanVolts = samples > 0 ? normal[m][10] / samples : 0;
+            double total = normal[m][9] - samples * meanVolts * meanVolts;
+            fits[m] = new Fit(gains[m][0], gains[m][1], gains[m][2], total > 0 ? 1 - residual[m] / total : 0,
+                              (int) samples);
+            fitChannels[m].set(new double[] {fits[m].kS, fits[m].kV, fits[m].kA, fits[m].rSquared, fits[m].samples});
+        }
+
+        validChannel.set(fits[pooled].isValid());
+        return fits[pooled];
+    }
+
+    /**
+     * Acceleration of a module at a sample, from a central difference.
+     * @return The acceleration, or NaN if the sample is near standstill, at the edge of the recording or next to a
+     *         gap between SysId tests.
+     */
+    private double acceleration(int module, int i) {
+        int span = CharacterizationConstants.ACCELERATION_SPAN;
+        if (i < span || i + span >= count
+            || Math.abs(velocities[module][i]) < CharacterizationConstants.MIN_VELOCITY) {
+            return Double.NaN;
+        }
+        double dt = times[i + span] - times[i - span];
+        if (dt <= 0 || dt > 4 * span * CharacterizationConstants.SAMPLE_PERIOD) {
+            return Double.NaN;
+        }
+        return (velocities[module][i + span] - velocities[module][i - span]) / dt;
+    }
+
+    /** Samples the drive motors while recording. Call once per loop from the main thread. */
+    public void sample() {
+        if (!recording || count >= times.length) {
+            return;
+        }
+        times[count] = Timer.getFPGATimestamp();
+        for (int m = 0; m < modules.length; m++) {
+            voltages[m][count] = (float) modules[m].getDriveMotor().getVoltage();
+            velocities[m][count] = (float) modules[m].getDriveMotor().getVelocity();
+        }
+        count++;
+    }
+
+    /**
+     * Adds a sample to normal equations, stored flat as the upper triangle of X'X (0 to 5), X'y (6 to 8), the sum of
+     * squares of y (9), the sum of y (10) and the sample count (11), for regressors X = [sgn(v), v, a] and y = V.
+     */
+    private static void accumulate(double[] normal, double v, double a, double y) {
+        double s = Math.signum(v);
+        normal[0] += s * s;
+        normal[1] += s * v;
+        normal[2] += s * a;
+        normal[3] += v * v;
+        normal[4] += v * a;
+        normal[5] += a * a;
+        normal[6] += s * y;
+        normal[7] += v * y;
+        normal[8] += a * y;
+        normal[9] += y * y;
+        normal[10] += y;
+        normal[11] += 1;
+    }
+
+    /** Solves the 3 by 3 normal equations for [kS, kV, kA] with Cramer's rule, zeros if they are singular. */
+    private static double[] solve(double[] n) {
+        double a = n[0], b = n[1], c = n[2], d = n[3], e = n[4], f = n[5];
+        double det = a * (d * f - e * e) - b * (b * f - c * e) + c * (b * e - c * d);
+        if (Math.abs(det) < 1e-9) {
+            return new double[3];
+        }
+        double y0 = n[6], y1 = n[7], y2 = n[8];
+        return new double[] {
+            (y0 * (d * f - e * e) - b * (y1 * f - e * y2) + c * (y1 * e - d * y2)) / det,
+            (a * (y1 * f - e * y2) - y0 * (b * f - c * e) + c * (b * y2 - c * y1)) / det,
+            (a * (d * y2 - y1 * e) - b * (b * y2 - y1 * c) + y0 * (b * e - c * d)) / det
+        };
+    }
+
+    /** Voltage predicted by [kS, kV, kA] gains. */
+    private static double predict(double[] gains, double v, double a) {
+        return gains[0] * Math.signum(v) + gains[1] * v + gains[2] * a;
+    }
+
+    private static double square(double x) {
+        return x * x;
+    }
+
+    /** A fitted feedforward and its quality. */
+    public static final class Fit {
+        /** Gains, in volts, volts per meter per second, and volts per meter per second squared. */
+        public final double kS, kV, kA;
+
+        /** Coefficient of determination of the fit. */
+        public final double rSquared;
+
+        /** Samples used by the fit. */
+        public final int samples;
+
+        private Fit(double kS, double kV, double kA, double rSquared, int samples) {
+            this.kS = kS;
+            this.kV = kV;
+            this.kA = kA;
+            this.rSquared = rSquared;
+            this.samples = samples;
+        }
+
+        /**
+         * Whether the fit has enough samples, physical gains and explains the data well enough to be applied.
+         * @return True if the fit is valid.
+         */
+        public boolean isValid() {
+            return samples >= CharacterizationConstants.MIN_SAMPLES
+                   && rSquared >= CharacterizationConstants.MIN_R_SQUARED
+                   && kS >= 0 && kV > 0 && kA >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("kS %.4f V, kV %.4f V/(m/s), kA %.4f V/(m/s^2), r2 %.3f, %d samples",
+                                 kS, kV, kA, rSquared, samples);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package frc.robot.utils;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.Constants.WarmupConstants;
+
+/**
+ * Runs representative workloads of the hot control paths while disabled, so they are JIT compiled before the first
+ * enable instead of running interpreted during the first seconds of a match.
+ * <p>
+ * Subsystems {@link #register(String, Runnable) register} workloads that exercise the same code as their enabled
+ * loop on synthetic inputs. Workloads must only compute: they must not command outputs or change subsystem state.
+ * {@link #run()} spends up to {@link WarmupConstants#LOOP_BUDGET} per disabled loop on them, round robin. The robot is
+ * reported warm once every workload ran {@link WarmupConstants#MIN_ITERATIONS} times and the JVM has not compiled
+ * anything for {@link WarmupConstants#SETTLE_TIME}.
+ */
+public final class JitWarmup {
+
+    /** Written with every workload result so the JIT cannot eliminate the computation as dead code. */
+    private static volatile double sink;
+
+    /** JitWarmup instance. */
+    private static JitWarmup instance;
+
+    /** Registered workloads, in registration order. */
+    private final List<Workload> workloads = new ArrayList<>();
+
+    /** JVM compiler, null if compilation time monitoring is unsupported. */
+    private final CompilationMXBean compiler;
+
+    /** Telemetry channels of the warmup. */
+    private final TelemetryScheduler.BooleanChannel warmedChannel;
+    private final TelemetryScheduler.DoubleChannel compilationTimeChannel;
+
+    /** Total JIT compilation time at the last change, in milliseconds. */
+    private long lastCompilationTime = -1;
+
+    /** Timestamp of the last JIT compilation time change, in seconds. */
+    private double lastCompilationChange;
+
+    /** Timestamp of the first warmup loop, in seconds. */
+    private double startTime = -1;
+
+    /** Next workload to run, so each loop resumes where the previous one ran out of budget. */
+    private int next = 0;
+
+    /** Whether the hot paths are compiled. */
+    private boolean warmed = false;
+
+    /** Constructor for the JitWarmup class. */
+    private JitWarmup() {
+        CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+        compiler = bean != null && bean.isCompilationTimeMonitoringSupported() ? bean : null;
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("Warmup", "Warmup", TelemetryConstants.DASHBOARD_PERIOD);
+        warmedChannel = telemetry.addBoolean("Warmed");
+        compilationTimeChannel = telemetry.addDouble("CompilationTimeMs");
+    }
+
+    /**
+     * Returns the JitWarmup instance.
+     * @return The JitWarmup instance.
+     */
+    public static synchronized JitWarmup getInstance() {
+        if (instance == null) {
+            instance = new JitWarmup();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a workload. It runs repeatedly until the robot is warm.
+     * @param name     Name of the workload, used in reports.
+     * @param workload Computation exercising a hot path on synthetic inputs, without side effects.
+     */
+    public void register(String name, Runnable workload) {
+        workloads.add(new Workload(name, workload));
+        warmed = false;
+    }
+
+    /**
+     * Consumes the result of a workload, so the computation producing it is compiled as it would be when enabled.
+     * @param value Any value computed by the workload.
+     */
+    public static void consume(double value) {
+        sink = value;
+    }
+
+    /**
+     * Whether every workload ran enough and JIT compilation has settled.
+     * @return True once the robot is warm.
+     */
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    /** Runs workloads for up to one loop budget. Only runs while disabled, until the robot is warm. */
+    public void run() {
+        if (warmed || workloads.isEmpty() || !DriverStation.isDisabled()) {
+            return;
+        }
+
+        double now = Timer.getFPGATimestamp();
+        if (startTime < 0) {
+            startTime = now;
+            lastCompilationChange = now;
+        }
+
+        // Round robin, so a slow workload does not starve the others.
+        long deadline = System.nanoTime() + (long) (WarmupConstants.LOOP_BUDGET * 1e9);
+        do {
+            Workload workload = workloads.get(next);
+            try {
+                workload.runnable.run();
+                workload.iterations++;
+                next = (next + 1) % workloads.size();
+            } catch (Exception e) {
+                // A failing workload would never warm up, drop it instead of retrying every loop.
+                DriverStation.reportWarning("Warmup workload " + workload.name + " failed, removing it.", false);
+                e.printStackTrace();
+                workloads.remove(next);
+                if (workloads.isEmpty()) {
+                    return;
+                }
+                next %= workloads.size();
+            }
+        } while (System.nanoTime() < deadline);
+
+        updateSettled(now);
+    }
+
+    /** Tracks JIT compilation activity and reports once the robot is warm. */
+    private void updateSettled(double now) {
+        if (compiler != null) {
+            long compilationTime = compiler.getTotalCompilationTime();
+            compilationTimeChannel.set(compilationTime);
+            if (compilationTime != lastCompilationTime) {
+                lastCompilationTime = compilationTime;
+                lastCompilationChange = now;
+            }
+        }
+
+        for (int i = 0; i < workloads.size(); i++) {
+            if (workloads.get(i).iterations < WarmupConstants.MIN_ITERATIONS) {
+                return;
+            }
+        }
+
+        // Without compilation time monitoring, fall back to the iteration count.
+        if (compiler == null || now - lastCompilationChange >= WarmupConstants.SETTLE_TIME) {
+            warmed = true;
+            warmedChannel.set(true);
+            System.out.println("Robot warmed up in " + String.format("%.1f", now - startTime) + " s, "
+                               + workloads.size() + " workloads.");
+        }
+    }
+
+    /** A registered workload and how many times it ran. */
+    private static final class Workload {
+        private final String name;
+        private final Runnable runnable;
+        private long iterations;
+
+        private Workload(String name, Runnable runnable) {
+            this.name = name;
+            this.runnable = runnable;
+        }
+    }
+}
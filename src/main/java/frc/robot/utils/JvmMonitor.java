@@ -0,0 +1,175 @@
+package frc.robot.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+
+import com.sun.management.GcInfo;
+import com.sun.management.ThreadMXBean;
+
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Measures the JVM health of every robot loop: bytes allocated by the main thread, garbage collection pauses that
+ * overlapped the loop, and heap headroom. Published under {@code /JVM}.
+ * <p>
+ * Allocations are counted with the per-thread allocation counter of HotSpot, so they only cover the main thread:
+ * notifier and writer threads are not included. {@link #getAllocatedBytes()} is also used by the
+ * {@link LoopWatchdog} to attribute allocations to its epochs.
+ */
+public final class JvmMonitor {
+
+    /** Thread allocation counter, null if the JVM does not support it. */
+    private static final ThreadMXBean threads = createThreadBean();
+
+    /** JvmMonitor instance. */
+    private static JvmMonitor instance;
+
+    private final GarbageCollectorMXBean[] collectors =
+        ManagementFactory.getGarbageCollectorMXBeans().toArray(GarbageCollectorMXBean[]::new);
+    private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    private final Runtime heap = Runtime.getRuntime();
+
+    /** Collection count and time of each collector at the start of the loop. */
+    private final long[] loopStartCollections = new long[collectors.length];
+    private final long[] loopStartCollectionTimes = new long[collectors.length];
+
+    /** Start of the loop, in milliseconds of JVM uptime, and main thread allocation counter. */
+    private long loopStartUptime, loopStartAllocated;
+
+    /** Heap in use after the latest collection, in bytes. */
+    private long liveHeap;
+
+    /** Telemetry channels of the JVM health. */
+    private final TelemetryScheduler.DoubleChannel allocatedChannel, maxAllocatedChannel, allocationRateChannel,
+        gcPauseChannel, gcCountChannel, heapUsedChannel, heapHeadroomChannel, liveHeapChannel;
+
+    /** Start of the current window in milliseconds of JVM uptime, and its allocations and largest loop, in bytes. */
+    private long windowStart = -1, windowAllocated, windowMaxAllocated;
+
+    /** Collections since the robot started. */
+    private long totalCollections;
+
+    /** Constructor for the JvmMonitor class. */
+    private JvmMonitor() {
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("JVM", "JVM", TelemetryConstants.DASHBOARD_PERIOD);
+        allocatedChannel = telemetry.addDouble("AllocatedBytesPerLoop");
+        maxAllocatedChannel = telemetry.addDouble("MaxAllocatedBytesPerLoop");
+        allocationRateChannel = telemetry.addDouble("AllocationRateMBps");
+        gcPauseChannel = telemetry.addDouble("GcPauseInLoopMs");
+        gcCountChannel = telemetry.addDouble("GcCount");
+        heapUsedChannel = telemetry.addDouble("HeapUsedMB");
+        heapHeadroomChannel = telemetry.addDouble("HeapHeadroomMB");
+        liveHeapChannel = telemetry.addDouble("LiveHeapAfterGcMB");
+    }
+
+    /**
+     * Returns the JvmMonitor instance.
+     * @return The JvmMonitor instance.
+     */
+    public static synchronized JvmMonitor getInstance() {
+        if (instance == null) {
+            instance = new JvmMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread since it started.
+     * @return The allocated bytes, or 0 if the JVM does not count them.
+     */
+    public static long getAllocatedBytes() {
+        return threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /** Starts measuring a loop. Call from the main thread at the start of the loop. */
+    public void beginLoop() {
+        loopStartUptime = runtime.getUptime();
+        for (int i = 0; i < collectors.length; i++) {
+            loopStartCollections[i] = collectors[i].getCollectionCount();
+            loopStartCollectionTimes[i] = collectors[i].getCollectionTime();
+        }
+        loopStartAllocated = getAllocatedBytes();
+    }
+
+    /** Ends measuring a loop and writes the results to the telemetry channels. Call from the main thread. */
+    public void endLoop() {
+        long allocated = getAllocatedBytes() - loopStartAllocated;
+        long loopEndUptime = runtime.getUptime();
+
+        double pause = 0;
+        for (int i = 0; i < collectors.length; i++) {
+            long collections = collectors[i].getCollectionCount() - loopStartCollections[i];
+            if (collections > 0) {
+                totalCollections += collections;
+                pause += pauseInLoop(collectors[i], collections,
+                                     collectors[i].getCollectionTime() - loopStartCollectionTimes[i], loopEndUptime);
+            }
+        }
+
+        // Runtime reads the heap counters directly, unlike the MemoryMXBean which allocates a usage every call.
+        long used = heap.totalMemory() - heap.freeMemory();
+
+        allocatedChannel.set(allocated);
+        updateWindow(allocated, loopEndUptime);
+        gcPauseChannel.set(pause);
+        gcCountChannel.set(totalCollections);
+        heapUsedChannel.set(used / 1e6);
+        heapHeadroomChannel.set((heap.maxMemory() - used) / 1e6);
+        liveHeapChannel.set(liveHeap / 1e6);
+    }
+
+    /** Publishes the allocation rate and the largest loop allocation once per {@link TelemetryConstants#JVM_WINDOW}. */
+    private void updateWindow(long allocated, long now) {
+        if (windowStart < 0) {
+            windowStart = now;
+        }
+        windowAllocated += allocated;
+        windowMaxAllocated = Math.max(windowMaxAllocated, allocated);
+
+        long elapsed = now - windowStart;
+        if (elapsed >= TelemetryConstants.JVM_WINDOW * 1000) {
+            allocationRateChannel.set(windowAllocated / 1e3 / elapsed);
+            maxAllocatedChannel.set(windowMaxAllocated);
+            windowStart = now;
+            windowAllocated = 0;
+            windowMaxAllocated = 0;
+        }
+    }
+
+    /**
+     * Time a collector paused the JVM within the current loop. Only the latest collection has its start and end
+     * times, earlier ones in the same loop are assumed to be entirely within the loop.
+     */
+    private double pauseInLoop(GarbageCollectorMXBean collector, long collections, long collectionTime, long loopEnd) {
+        if (!(collector instanceof com.sun.management.GarbageCollectorMXBean details)) {
+            return collectionTime;
+        }
+        GcInfo last = details.getLastGcInfo();
+        if (last == null) {
+            return collectionTime;
+        }
+
+        long used = 0;
+        for (MemoryUsage usage : last.getMemoryUsageAfterGc().values()) {
+            used += usage.getUsed();
+        }
+        liveHeap = used;
+
+        long overlap = Math.max(0, Math.min(last.getEndTime(), loopEnd) - Math.max(last.getStartTime(), loopStartUptime));
+        long earlier = collections > 1 ? Math.max(0, collectionTime - last.getDuration()) : 0;
+        return overlap + earlier;
+    }
+
+    /** Returns the HotSpot thread bean with allocation counting enabled, or null if unsupported. */
+    private static ThreadMXBean createThreadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean)
+            || !bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+}
@@ -0,0 +1,340 @@
+package frc.robot.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.Constants.WatchdogConstants;
+
+/**
+ * Detects robot loops that exceed {@link WatchdogConstants#LOOP_BUDGET} and captures what the loop spent its time on.
+ * <p>
+ * Code running in the loop marks {@link #epoch(String, String) epochs}: each records the time and the main thread
+ * allocations since the previous epoch, like the WPILib tracer. Subsystems mark the end of their {@code periodic()},
+ * commands are marked through the {@link CommandScheduler} callbacks. A background thread samples the main thread
+ * stack when the deadline passes with the loop still running. Overrunning loops are kept as
+ * {@link Snapshot snapshots} with the epochs, the {@link #addGauge(String, DoubleSupplier) gauges} such as vision
+ * queue depths, and the garbage collections during the loop. The latest {@link WatchdogConstants#SNAPSHOT_CAPACITY}
+ * snapshots are kept for {@link #getSnapshots()}, and each one is printed from the background thread so the report
+ * does not delay the next loop.
+ */
+public final class LoopWatchdog {
+
+    /** LoopWatchdog instance. */
+    private static LoopWatchdog instance;
+
+    /** Epochs of the current loop. Main thread only. */
+    private final String[] epochOwners = new String[WatchdogConstants.MAX_EPOCHS];
+    private final String[] epochPhases = new String[WatchdogConstants.MAX_EPOCHS];
+    private final long[] epochNanos = new long[WatchdogConstants.MAX_EPOCHS];
+    private final long[] epochBytes = new long[WatchdogConstants.MAX_EPOCHS];
+    private int epochCount, droppedEpochs;
+    private long lastEpoch, lastEpochAllocated;
+
+    /** Values sampled into every snapshot. */
+    private final List<String> gaugeNames = new ArrayList<>();
+    private final List<DoubleSupplier> gauges = new ArrayList<>();
+
+    private final GarbageCollectorMXBean[] collectors =
+        ManagementFactory.getGarbageCollectorMXBeans().toArray(GarbageCollectorMXBean[]::new);
+    private long loopStartCollections, loopStartCollectionTime;
+
+    /** Latest snapshots, oldest first. Guarded by itself. */
+    private final ArrayDeque<Snapshot> snapshots = new ArrayDeque<>();
+
+    /** Snapshots waiting to be printed by the watchdog thread. */
+    private final ConcurrentLinkedQueue<Snapshot> unprinted = new ConcurrentLinkedQueue<>();
+
+    private final long budgetNanos = (long) (WatchdogConstants.LOOP_BUDGET * 1e9);
+
+    /** State of the current loop, shared with the watchdog thread. */
+    private volatile long loopStart;
+    private volatile int loop;
+    private volatile boolean inLoop;
+
+    /** Main thread stack sampled at the deadline of loop {@link #stackLoop}. */
+    private volatile StackTraceElement[] stack;
+    private volatile int stackLoop = -1;
+
+    private Thread mainThread, watchdogThread;
+
+    /** Telemetry channels of the watchdog. */
+    private final TelemetryScheduler.DoubleChannel overrunsChannel, lastOverrunChannel;
+    private int overruns;
+
+    /** Constructor for the LoopWatchdog class. */
+    private LoopWatchdog() {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.onCommandInitialize(command -> epoch(command.getName(), ".initialize()"));
+        scheduler.onCommandExecute(command -> epoch(command.getName(), ".execute()"));
+        scheduler.onCommandFinish(command -> epoch(command.getName(), ".end()"));
+        scheduler.onCommandInterrupt(command -> epoch(command.getName(), ".end(interrupted)"));
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("LoopWatchdog", "LoopWatchdog", TelemetryConstants.DASHBOARD_PERIOD);
+        overrunsChannel = telemetry.addDouble("Overruns");
+        lastOverrunChannel = telemetry.addDouble("LastOverrunMs");
+    }
+
+    /**
+     * Returns the LoopWatchdog instance.
+     * @return The LoopWatchdog instance.
+     */
+    public static synchronized LoopWatchdog getInstance() {
+        if (instance == null) {
+            instance = new LoopWatchdog();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a value sampled into every snapshot. Sampled on the main thread, after the loop.
+     * @param name  Name of the value.
+     * @param gauge Supplier of the value.
+     */
+    public void addGauge(String name, DoubleSupplier gauge) {
+        gaugeNames.add(name);
+        gauges.add(gauge);
+    }
+
+    /** Starts a loop and arms the deadline. Call from the main thread before anything else in the loop. */
+    public void beginLoop() {
+        if (watchdogThread == null) {
+            mainThread = Thread.currentThread();
+            watchdogThread = new Thread(this::watch, "LoopWatchdog");
+            watchdogThread.setDaemon(true);
+            watchdogThread.start();
+        }
+
+        epochCount = 0;
+        droppedEpochs = 0;
+        loopStartCollections = 0;
+        loopStartCollectionTime = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            loopStartCollections += collector.getCollectionCount();
+            loopStartCollectionTime += collector.getCollectionTime();
+        }
+
+        lastEpochAllocated = JvmMonitor.getAllocatedBytes();
+        lastEpoch = System.nanoTime();
+        loopStart = lastEpoch;
+        inLoop = true;
+        loop++;
+        LockSupport.unpark(watchdogThread);
+    }
+
+    /**
+     * Records the time and allocations since the previous epoch of this loop. Main thread only.
+     * @param owner Subsystem, command or class the time is attributed to.
+     * @param phase What it was doing, appended to the owner in reports.
+     */
+    public void epoch(String owner, String phase) {
+        long now = System.nanoTime();
+        long allocated = JvmMonitor.getAllocatedBytes();
+        if (epochCount < epochNanos.length) {
+            epochOwners[epochCount] = owner;
+            epochPhases[epochCount] = phase;
+            epochNanos[epochCount] = now - lastEpoch;
+            epochBytes[epochCount] = allocated - lastEpochAllocated;
+            epochCount++;
+        } else {
+            droppedEpochs++;
+        }
+        lastEpoch = now;
+        lastEpochAllocated = allocated;
+    }
+
+    /** Ends the loop, and captures a snapshot if it overran. Call from the main thread after everything else. */
+    public void endLoop() {
+        epoch("IterativeRobotBase", ".loopFunc()");
+        inLoop = false;
+
+        long duration = lastEpoch - loopStart;
+        if (duration <= budgetNanos) {
+            return;
+        }
+
+        long collections = -loopStartCollections, collectionTime = -loopStartCollectionTime;
+        for (GarbageCollectorMXBean collector : collectors) {
+            collections += collector.getCollectionCount();
+            collectionTime += collector.getCollectionTime();
+        }
+
+        String[] epochs = new String[epochCount];
+        double[] epochMillis = new double[epochCount];
+        long[] epochAllocated = new long[epochCount];
+        for (int i = 0; i < epochCount; i++) {
+            epochs[i] = epochOwners[i] + epochPhases[i];
+            epochMillis[i] = epochNanos[i] / 1e6;
+            epochAllocated[i] = epochBytes[i];
+        }
+        double[] gaugeValues = new double[gauges.size()];
+        for (int i = 0; i < gaugeValues.length; i++) {
+            gaugeValues[i] = gauges.get(i).getAsDouble();
+        }
+
+        Snapshot snapshot = new Snapshot(Timer.getFPGATimestamp(), duration / 1e6, epochs, epochMillis, epochAllocated,
+                                         droppedEpochs, collections, collectionTime,
+                                         gaugeNames.toArray(String[]::new), gaugeValues,
+                                         stackLoop == loop ? stack : null);
+        synchronized (snapshots) {
+            if (snapshots.size() == WatchdogConstants.SNAPSHOT_CAPACITY) {
+                snapshots.removeFirst();
+            }
+            snapshots.addLast(snapshot);
+        }
+        unprinted.add(snapshot);
+
+        overrunsChannel.set(++overruns);
+        lastOverrunChannel.set(snapshot.durationMillis);
+    }
+
+    /**
+     * Returns the latest snapshots.
+     * @return The snapshots of the latest overrunning loops, oldest first.
+     */
+    public List<Snapshot> getSnapshots() {
+        synchronized (snapshots) {
+            return new ArrayList<>(snapshots);
+        }
+    }
+
+    /**
+     * Returns the number of epochs recorded in the last loop, to aggregate them over many loops. Main thread only.
+     * @return The number of epochs, read with {@link #getEpochOwner}, {@link #getEpochNanos} and
+     *         {@link #getEpochAllocatedBytes}.
+     */
+    public int getEpochCount() {
+        return epochCount;
+    }
+
+    /**
+     * Returns the owner of an epoch of the last loop. Main thread only.
+     * @param index Index of the epoch, in order.
+     * @return The subsystem, command or class the epoch is attributed to.
+     */
+    public String getEpochOwner(int index) {
+        return epochOwners[index];
+    }
+
+    /**
+     * Returns the duration of an epoch of the last loop. Main thread only.
+     * @param index Index of the epoch, in order.
+     * @return The duration, in nanoseconds.
+     */
+    public long getEpochNanos(int index) {
+        return epochNanos[index];
+    }
+
+    /**
+     * Returns the main thread allocations of an epoch of the last loop. Main thread only.
+     * @param index Index of the epoch, in order.
+     * @return The allocated bytes.
+     */
+    public long getEpochAllocatedBytes(int index) {
+        return epochBytes[index];
+    }
+
+    /** Samples the main thread stack at each loop deadline and prints the snapshots, on the watchdog thread. */
+    private void watch() {
+        int handled = 0;
+        while (true) {
+            while (loop == handled) {
+                LockSupport.park(this);
+            }
+            handled = loop;
+            long deadline = loopStart + budgetNanos;
+
+            Snapshot snapshot;
+            while ((snapshot = unprinted.poll()) != null) {
+                System.out.print(snapshot);
+            }
+
+            long remaining;
+            while (loop == handled && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (loop == handled && inLoop) {
+                stack = mainThread.getStackTrace();
+                stackLoop = handled;
+            }
+        }
+    }
+
+    /** What an overrunning loop spent its time on. */
+    public static final class Snapshot {
+        /** FPGA timestamp of the end of the loop, in seconds. */
+        public final double timestamp;
+
+        /** Duration of the loop, in milliseconds. */
+        public final double durationMillis;
+
+        /** Epochs of the loop in order, their durations in milliseconds and main thread allocations in bytes. */
+        public final String[] epochs;
+        public final double[] epochMillis;
+        public final long[] epochAllocated;
+
+        /** Epochs not recorded because the loop had more than {@link WatchdogConstants#MAX_EPOCHS}. */
+        public final int droppedEpochs;
+
+        /** Garbage collections that ended during the loop, and their total time in milliseconds. */
+        public final long collections, collectionMillis;
+
+        /** Gauges sampled after the loop. */
+        public final String[] gaugeNames;
+        public final double[] gaugeValues;
+
+        /** Main thread stack at the deadline, null if it was not captured. */
+        public final StackTraceElement[] stack;
+
+        private Snapshot(double timestamp, double durationMillis, String[] epochs, double[] epochMillis,
+                         long[] epochAllocated, int droppedEpochs, long collections, long collectionMillis, String[] gaugeNames,
+                         double[] gaugeValues, StackTraceElement[] stack) {
+            this.timestamp = timestamp;
+            this.durationMillis = durationMillis;
+            this.epochs = epochs;
+            this.epochMillis = epochMillis;
+            this.epochAllocated = epochAllocated;
+            this.droppedEpochs = droppedEpochs;
+            this.collections = collections;
+            this.collectionMillis = collectionMillis;
+            this.gaugeNames = gaugeNames;
+            this.gaugeValues = gaugeValues;
+            this.stack = stack;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Loop overrun at %.3f s: %.1f ms%n", timestamp, durationMillis));
+            for (int i = 0; i < epochs.length; i++) {
+                report.append(String.format("  %-48s %7.2f ms %9.1f KB%n", epochs[i], epochMillis[i],
+                                            epochAllocated[i] / 1e3));
+            }
+            if (droppedEpochs > 0) {
+                report.append("  ... ").append(droppedEpochs).append(" more epochs\n");
+            }
+            report.append(String.format("  GC: %d collections, %d ms%n", collections, collectionMillis));
+            for (int i = 0; i < gaugeNames.length; i++) {
+                report.append(String.format("  %-48s %7.1f%n", gaugeNames[i], gaugeValues[i]));
+            }
+            if (stack == null) {
+                report.append("  Main thread stack not captured, the loop ended around the deadline\n");
+            } else {
+                report.append("  Main thread at the deadline:\n");
+                for (StackTraceElement element : stack) {
+                    report.append("    at ").append(element).append('\n');
+                }
+            }
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import frc.robot.Constants.PeriodicConstants;
+
+/**
+ * Runs the periodic work of the subsystems once per loop, in parallel when {@link PeriodicConstants#PARALLEL} is set.
+ * <p>
+ * Subsystems register {@link Task tasks} that declare the shared state they read and write, by name. A task runs after
+ * every earlier registered task it conflicts with: one writes what the other reads or writes. Tasks that do not
+ * conflict may overlap on a fixed pool of {@link PeriodicConstants#WORKER_THREADS} workers, with the main thread
+ * taking tasks too. Since conflicting tasks always run in registration order, the result does not depend on the
+ * timing of the threads. {@link #run()} returns only when every task has completed, before the command scheduler
+ * runs, so commands and actuator outputs always see the work of the whole loop.
+ * <p>
+ * Tasks must only touch the state they declare, plus their own telemetry channels. They must not call the
+ * {@link LoopWatchdog}, which is main thread only: task durations are reported with the loop overrun snapshots
+ * instead. When not parallel, tasks run on the main thread in registration order, each with its own epoch.
+ */
+public final class ParallelPeriodic {
+
+    /** ParallelPeriodic instance. */
+    private static ParallelPeriodic instance;
+
+    /** Every registered task, in registration order. */
+    private final List<Task> tasks = new ArrayList<>();
+
+    /** Whether tasks were registered since the dependency graph was built. */
+    private boolean graphStale = true;
+
+    /** Number of earlier tasks each task waits for, and the later tasks waiting for it. */
+    private int[] dependencyCounts = new int[0];
+    private int[][] dependents = new int[0][];
+
+    /** Duration of each task in the last loop, in nanoseconds. */
+    private long[] taskNanos = new long[0];
+
+    /** Scheduling state of the current loop. Guarded by {@link #lock}. */
+    private final Object lock = new Object();
+    private int[] remaining = new int[0];
+    private int[] ready = new int[0];
+    private int readyHead, readyCount, completed;
+    private Throwable failure;
+
+    private Thread[] workers;
+
+    /** Constructor for the ParallelPeriodic class. */
+    private ParallelPeriodic() {}
+
+    /**
+     * Returns the ParallelPeriodic instance.
+     * @return The ParallelPeriodic instance.
+     */
+    public static synchronized ParallelPeriodic getInstance() {
+        if (instance == null) {
+            instance = new ParallelPeriodic();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers periodic work. Declare what it reads and writes on the returned task, before the first loop.
+     * @param name Name of the task, used in reports.
+     * @param work Work to run once per loop.
+     * @return The registered task.
+     */
+    public synchronized Task task(String name, Runnable work) {
+        Task task = new Task(name, work);
+        tasks.add(task);
+        graphStale = true;
+        return task;
+    }
+
+    /**
+     * Runs every task once and waits for all of them. Call from the main thread before the command scheduler.
+     * @throws RuntimeException If any task failed, once every task has completed.
+     */
+    public void run() {
+        synchronized (this) {
+            if (graphStale) {
+                buildGraph();
+            }
+        }
+
+        if (!PeriodicConstants.PARALLEL) {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                task.work.run();
+                LoopWatchdog.getInstance().epoch(task.name, ".periodic()");
+            }
+            return;
+        }
+
+        if (workers == null) {
+            startWorkers();
+        }
+
+        synchronized (lock) {
+            failure = null;
+            completed = 0;
+            readyHead = 0;
+            readyCount = 0;
+            for (int i = 0; i < remaining.length; i++) {
+                remaining[i] = dependencyCounts[i];
+                if (remaining[i] == 0) {
+                    ready[readyCount++] = i;
+                }
+            }
+            lock.notifyAll();
+        }
+
+        // The main thread takes tasks as well, until the last one completes.
+        int task;
+        while ((task = take(true)) >= 0) {
+            execute(task);
+        }
+        LoopWatchdog.getInstance().epoch("ParallelPeriodic", ".join()");
+
+        Throwable error;
+        synchronized (lock) {
+            error = failure;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /** Computes the dependencies of every task from their declared reads and writes. */
+    private void buildGraph() {
+        int count = tasks.size();
+        List<List<Integer>> edges = new ArrayList<>();
+        dependencyCounts = new int[count];
+        for (int later = 0; later < count; later++) {
+            edges.add(new ArrayList<>());
+            for (int earlier = 0; earlier < later; earlier++) {
+                if (tasks.get(earlier).conflictsWith(tasks.get(later))) {
+                    edges.get(earlier).add(later);
+                    dependencyCounts[later]++;
+                }
+            }
+        }
+
+        dependents = new int[count][];
+        for (int i = 0; i < count; i++) {
+            dependents[i] = edges.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        synchronized (lock) {
+            remaining = new int[count];
+            ready = new int[count];
+        }
+        taskNanos = Arrays.copyOf(taskNanos, count);
+
+        // Without epochs for the tasks on the workers, their durations are reported with the overrun snapshots.
+        for (int i = 0; i < count && PeriodicConstants.PARALLEL; i++) {
+            Task task = tasks.get(i);
+            if (!task.gaugeAdded) {
+                int index = i;
+                LoopWatchdog.getInstance().addGauge("Periodic " + task.name + " ms", () -> taskNanos[index] / 1e6);
+                task.gaugeAdded = true;
+            }
+        }
+        graphStale = false;
+    }
+
+    /** Starts the worker threads. */
+    private void startWorkers() {
+        workers = new Thread[PeriodicConstants.WORKER_THREADS];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "ParallelPeriodic " + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /** Takes tasks as they become ready, on a worker thread. */
+    private void work() {
+        while (true) {
+            execute(take(false));
+        }
+    }
+
+    /**
+     * Waits for a ready task.
+     * @param untilDone Whether to stop waiting once every task of the loop has completed, for the main thread.
+     * @return The index of the task, or -1 if every task completed.
+     */
+    private int take(boolean untilDone) {
+        synchronized (lock) {
+            while (readyCount == 0) {
+                if (untilDone && completed == remaining.length) {
+                    return -1;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                    throw new RuntimeException(e);
+                }
+            }
+            readyCount--;
+            return ready[readyHead++];
+        }
+    }
+
+    /** Runs a task and releases the tasks waiting for it. */
+    private void execute(int index) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            tasks.get(index).work.run();
+        } catch (Throwable t) {
+            error = t;
+        }
+        taskNanos[index] = System.nanoTime() - start;
+
+        synchronized (lock) {
+            if (error != null && failure == null) {
+                failure = error;
+            }
+            for (int dependent : dependents[index]) {
+                if (--remaining[dependent] == 0) {
+                    ready[readyHead + readyCount++] = dependent;
+                }
+            }
+            completed++;
+            lock.notifyAll();
+        }
+    }
+
+    /** Periodic work and the shared state it declares. */
+    public static final class Task {
+        private final String name;
+        private final Runnable work;
+        private final List<String> reads = new ArrayList<>();
+        private final List<String> writes = new ArrayList<>();
+        private boolean gaugeAdded;
+
+        private Task(String name, Runnable work) {
+            this.name = name;
+            this.work = work;
+        }
+
+        /**
+         * Declares state the task reads.
+         * @param resources Names of the state.
+         * @return This task.
+         */
+        public Task reads(String... resources) {
+            reads.addAll(List.of(resources));
+            return this;
+        }
+
+        /**
+         * Declares state the task writes.
+         * @param resources Names of the state.
+         * @return This task.
+         */
+        public Task writes(String... resources) {
+            writes.addAll(List.of(resources));
+            return this;
+        }
+
+        /** Whether one of the tasks writes state the other reads or writes. */
+        private boolean conflictsWith(Task other) {
+            for (String resource : writes) {
+                if (other.reads.contains(resource) || other.writes.contains(resource)) {
+                    return true;
+                }
+            }
+            for (String resource : reads) {
+                if (other.writes.contains(resource)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Immutable snapshot of the robot state at one odometry update.
+ * <p>
+ * The drivebase queries the pose estimator once per update and publishes a new snapshot through a volatile
+ * reference. Every consumer of the loop reads the same snapshot, and other threads get a consistent pose, velocity,
+ * heading, module states and gyro reading without locking or touching the hardware. The field velocity is derived from
+ * the robot velocity and the heading of the same snapshot, so it never mixes two estimates.
+ */
+public final class RobotState {
+    /** FPGA timestamp of the snapshot, in seconds. */
+    public final double timestamp;
+
+    /** Fused pose of the robot on the field. */
+    public final Pose2d pose;
+
+    /** Heading of the robot, the rotation of the {@link #pose}. */
+    public final Rotation2d heading;
+
+    /** Measured robot relative velocity. */
+    public final ChassisSpeeds robotVelocity;
+
+    /** Measured field relative velocity. */
+    public final ChassisSpeeds fieldVelocity;
+
+    /** Measured module states, copied for this snapshot. Must not be modified. */
+    public final SwerveModuleState[] moduleStates;
+
+    /** Raw gyro yaw, without the pose estimator corrections. */
+    public final Rotation2d gyroYaw;
+
+    /** Gyro yaw rate, in radians per second. */
+    public final double yawRate;
+
+    /** Whether the robot is on the red alliance, false if the alliance is not available. */
+    public final boolean isRedAlliance;
+
+    /**
+     * Constructor for the RobotState class.
+     * @param timestamp     FPGA timestamp of the snapshot, in seconds.
+     * @param pose          Fused pose of the robot on the field.
+     * @param robotVelocity Measured robot relative velocity.
+     * @param moduleStates  Measured module states, not shared with anything else.
+     * @param gyroYaw       Raw gyro yaw.
+     * @param yawRate       Gyro yaw rate, in radians per second.
+     * @param isRedAlliance Whether the robot is on the red alliance.
+     */
+    public RobotState(double timestamp, Pose2d pose, ChassisSpeeds robotVelocity, SwerveModuleState[] moduleStates,
+                      Rotation2d gyroYaw, double yawRate, boolean isRedAlliance) {
+        this.timestamp = timestamp;
+        this.pose = pose;
+        this.heading = pose.getRotation();
+        this.robotVelocity = robotVelocity;
+        this.fieldVelocity = ChassisSpeeds.fromRobotRelativeSpeeds(robotVelocity, heading);
+        this.moduleStates = moduleStates;
+        this.gyroYaw = gyroYaw;
+        this.yawRate = yawRate;
+        this.isRedAlliance = isRedAlliance;
+    }
+}
@@ -0,0 +1,98 @@
+package frc.robot.utils;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Measures the time from JVM launch to the first {@code robotPeriodic}, and drives the headless simulation runs of
+ * the {@code cdsTrainingRun} and {@code startupBenchmark} Gradle tasks.
+ * <p>
+ * The measurement is printed and published under {@code /Startup} on every boot, together with whether the
+ * class-data-sharing archive was used. In simulation, {@value #EXIT_AFTER_PROPERTY} stops the robot that many
+ * seconds after the first loop, and {@value #TRAINING_PROPERTY} runs through disabled, autonomous and teleop so the
+ * recorded class list covers a match.
+ */
+public final class StartupBenchmark {
+
+    /** System property, seconds to run after the first {@code robotPeriodic} before exiting. Simulation only. */
+    public static final String EXIT_AFTER_PROPERTY = "robot.exitAfter";
+
+    /** System property, enables autonomous then teleop during the run. Simulation only. */
+    public static final String TRAINING_PROPERTY = "robot.training";
+
+    /** Seconds spent in each mode of a training run, disabled then autonomous then teleop. */
+    private static final double TRAINING_PHASE = 5.0;
+
+    /** StartupBenchmark instance. */
+    private static StartupBenchmark instance;
+
+    private final double exitAfter =
+        RobotBase.isSimulation() ? Double.parseDouble(System.getProperty(EXIT_AFTER_PROPERTY, "-1")) : -1;
+    private final boolean training = RobotBase.isSimulation() && Boolean.getBoolean(TRAINING_PROPERTY);
+
+    /** Timestamp of the first loop, in seconds. Negative until it ran. */
+    private double firstPeriodicTime = -1;
+
+    /** Constructor for the StartupBenchmark class. */
+    private StartupBenchmark() {}
+
+    /**
+     * Returns the StartupBenchmark instance.
+     * @return The StartupBenchmark instance.
+     */
+    public static synchronized StartupBenchmark getInstance() {
+        if (instance == null) {
+            instance = new StartupBenchmark();
+        }
+        return instance;
+    }
+
+    /** Records the first loop, then drives the simulated run. Call at the start of {@code robotPeriodic}. */
+    public void robotPeriodic() {
+        double now = Timer.getFPGATimestamp();
+        if (firstPeriodicTime < 0) {
+            firstPeriodicTime = now;
+            report(ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+
+        double elapsed = now - firstPeriodicTime;
+        if (training) {
+            int phase = (int) (elapsed / TRAINING_PHASE);
+            DriverStationSim.setEnabled(phase == 1 || phase == 2);
+            DriverStationSim.setAutonomous(phase == 1);
+            DriverStationSim.notifyNewData();
+        }
+        if (exitAfter >= 0 && elapsed >= exitAfter) {
+            System.exit(0);
+        }
+    }
+
+    /** Prints and publishes the startup time and the class-data-sharing state. */
+    private void report(long startupMillis) {
+        String archive = "none";
+        boolean sharing = false;
+        try {
+            HotSpotDiagnosticMXBean hotspot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            sharing = Boolean.parseBoolean(hotspot.getVMOption("UseSharedSpaces").getValue());
+            String file = hotspot.getVMOption("SharedArchiveFile").getValue();
+            archive = file.isEmpty() ? "JDK default" : file;
+        } catch (Exception e) {
+            // Not a HotSpot JVM, the time alone is still reported.
+        }
+
+        // Parsed by the startupBenchmark Gradle task, keep the format.
+        System.out.println("Startup benchmark: " + startupMillis + " ms from JVM launch to first robotPeriodic"
+                           + " (class sharing " + (sharing ? "on, archive " + archive : "off") + ")");
+
+        TelemetryScheduler.Component telemetry = TelemetryScheduler.getInstance()
+            .getComponent("Startup", "Startup", TelemetryConstants.DASHBOARD_PERIOD);
+        telemetry.addDouble("TimeToFirstPeriodicMs").set(startupMillis);
+        telemetry.addBoolean("ClassSharing").set(sharing);
+    }
+}
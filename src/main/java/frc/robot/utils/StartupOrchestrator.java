@@ -0,0 +1,198 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs the robot initialization steps in parallel, following their declared dependencies, and logs how long each
+ * step took.
+ * <p>
+ * A step starts on a worker thread as soon as every step it depends on has completed. Steps must only read files and
+ * build plain objects: anything that registers with the {@link edu.wpi.first.wpilibj2.command.CommandScheduler} or
+ * the {@link TelemetryScheduler}, schedules commands or publishes to NetworkTables, such as subsystem constructors, is
+ * not thread-safe with the main thread. Run it on the main thread after {@link #finish()} with
+ * {@link #onMainThread(String, Supplier)}, which adds it to the timing report.
+ */
+public final class StartupOrchestrator {
+
+    /** Worker threads, initialization is mostly waiting on files and CAN so more than the roboRIO core count. */
+    private static final int WORKER_THREADS = 4;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "Startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Every declared step, in declaration order. */
+    private final List<Step<?>> steps = new ArrayList<>();
+
+    /** Creation time of the orchestrator, in nanoseconds. */
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Declares a step. It starts once all its dependencies have completed.
+     * @param name         Name of the step, used in the timing report.
+     * @param initializer  Creates the result of the step.
+     * @param dependencies Steps that must complete first.
+     * @param <T>          Type of the result.
+     * @return The declared step.
+     */
+    public <T> Step<T> step(String name, Supplier<T> initializer, Step<?>... dependencies) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            futures[i] = dependencies[i].future;
+        }
+
+        Step<T> step = new Step<>(name);
+        step.future = CompletableFuture.allOf(futures).thenApplyAsync(ignored -> {
+            step.startTime = System.nanoTime();
+            try {
+                return initializer.get();
+            } finally {
+                step.endTime = System.nanoTime();
+                step.thread = Thread.currentThread().getName();
+            }
+        }, executor);
+        steps.add(step);
+        return step;
+    }
+
+    /**
+     * Waits for every step, logs the timing breakdown and stops the worker threads.
+     * @throws RuntimeException If any step failed, after the report was logged.
+     */
+    public void finish() {
+        RuntimeException failure = null;
+        for (Step<?> step : steps) {
+            try {
+                step.get();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        executor.shutdown();
+
+        System.out.println("********** Robot startup: " + String.format("%.0f", millis(System.nanoTime())) + " ms **********");
+        steps.stream()
+            .sorted(Comparator.comparingLong(step -> step.startTime == 0 ? Long.MAX_VALUE : step.startTime))
+            .forEach(step -> System.out.println(step.report()));
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs a step on the calling thread and logs its timing like the other steps. Call from the main thread after
+     * {@link #finish()}, for the steps that are not thread-safe.
+     * @param name        Name of the step, used in the timing report.
+     * @param initializer Creates the result of the step.
+     * @param <T>         Type of the result.
+     * @return The result of the step.
+     */
+    public <T> T onMainThread(String name, Supplier<T> initializer) {
+        Step<T> step = new Step<>(name);
+        step.thread = Thread.currentThread().getName();
+        step.startTime = System.nanoTime();
+        step.future = new CompletableFuture<>();
+        try {
+            T result = initializer.get();
+            step.future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            step.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            step.endTime = System.nanoTime();
+            System.out.println(step.report());
+        }
+    }
+
+    /**
+     * Runs tasks concurrently on their own threads and waits for all of them, for independent hardware that would
+     * otherwise be configured one device at a time.
+     * @param name  Name of the threads.
+     * @param tasks Tasks to run.
+     * @throws RuntimeException If any task failed.
+     */
+    public static void runConcurrently(String name, List<Runnable> tasks) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            Runnable task = tasks.get(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                    future.complete(null);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }, name + " " + i);
+            thread.setDaemon(true);
+            thread.start();
+            futures.add(future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(name + " failed.", e.getCause());
+        }
+    }
+
+    /** Time since the orchestrator was created, in milliseconds. */
+    private double millis(long time) {
+        return (time - startTime) / 1e6;
+    }
+
+    /**
+     * A declared initialization step and its result.
+     * @param <T> Type of the result.
+     */
+    public final class Step<T> {
+        private final String name;
+        private CompletableFuture<T> future;
+        private volatile long startTime, endTime;
+        private volatile String thread;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the result of the step, waiting for it if necessary.
+         * @return The result of the step.
+         * @throws RuntimeException If the step or one of its dependencies failed.
+         */
+        public T get() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new RuntimeException("Startup step failed: " + name, cause);
+            }
+        }
+
+        /** One line of the timing report: start, duration and thread, or why the step did not run. */
+        private String report() {
+            if (startTime == 0) {
+                return String.format("  %-28s skipped, a dependency failed", name);
+            }
+            String status = future.isCompletedExceptionally() ? "  FAILED" : "";
+            return String.format("  %-28s start %7.1f ms  took %7.1f ms  on %s%s",
+                                 name, millis(startTime), (endTime - startTime) / 1e6, thread, status);
+        }
+    }
+}
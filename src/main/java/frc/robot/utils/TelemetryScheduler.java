@@ -0,0 +1,462 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.FieldObject2d;
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Owns the robot-side NetworkTables publishers.
+ * <p>
+ * Components write their values into channels as often as they like. Once per robot loop, {@link #run()} publishes
+ * only the channels that changed, coalesced per component at its publish period, and flushes NetworkTables at most
+ * once per {@link TelemetryConstants#FLUSH_PERIOD}. The estimated bandwidth of every component is published under
+ * {@code /Telemetry/<component>/BytesPerSecond}.
+ * <p>
+ * Components must be registered from the main robot thread. Each channel must be written either from the main robot
+ * thread or from a single {@link ParallelPeriodic} task: the tasks complete before {@link #run()} publishes, so their
+ * writes are visible to it. Two threads must never write the same channel.
+ */
+public final class TelemetryScheduler {
+
+    /** Estimated NetworkTables 4 framing overhead per value update: message header, topic ID, timestamp and type. */
+    private static final int FRAME_OVERHEAD_BYTES = 12;
+
+    /** TelemetryScheduler instance. */
+    private static TelemetryScheduler instance;
+
+    /** Registered components, in registration order. */
+    private final List<Component> components = new ArrayList<>();
+
+    /** Component reporting the bandwidth of every other component. */
+    private final Component telemetry;
+
+    /** Whether any channel was published since the last flush. */
+    private boolean flushPending = false;
+
+    /** Timestamp of the last NetworkTables flush, in seconds. */
+    private double lastFlushTime = 0.0;
+
+    /** Start of the current bandwidth measurement window, in seconds. */
+    private double windowStartTime = 0.0;
+
+    /** Constructor for the TelemetryScheduler class. */
+    private TelemetryScheduler() {
+        telemetry = new Component("Telemetry", "Telemetry", TelemetryConstants.BANDWIDTH_WINDOW);
+        telemetry.bandwidthChannel = telemetry.addDouble("Telemetry/BytesPerSecond");
+        components.add(telemetry);
+    }
+
+    /**
+     * Returns the TelemetryScheduler instance.
+     * @return The TelemetryScheduler instance.
+     */
+    public static synchronized TelemetryScheduler getInstance() {
+        if (instance == null) {
+            instance = new TelemetryScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a component, or returns the already registered component with the same name.
+     * @param name          Name of the component, used to report its bandwidth.
+     * @param tablePath     NetworkTables path the component publishes its channels under.
+     * @param publishPeriod Minimum time between two publishes of the component, in seconds.
+     * @return The registered component.
+     */
+    public Component getComponent(String name, String tablePath, double publishPeriod) {
+        for (Component component : components) {
+            if (component.name.equals(name)) {
+                return component;
+            }
+        }
+
+        Component component = new Component(name, tablePath, publishPeriod);
+        component.bandwidthChannel = telemetry.addDouble(name + "/BytesPerSecond");
+        components.add(component);
+        return component;
+    }
+
+    /** Publishes the changed channels of every component that is due, and flushes at the controlled rate. */
+    public void run() {
+        double now = Timer.getFPGATimestamp();
+
+        double elapsed = now - windowStartTime;
+        if (elapsed >= TelemetryConstants.BANDWIDTH_WINDOW) {
+            for (int i = 0; i < components.size(); i++) {
+                components.get(i).closeWindow(elapsed);
+            }
+            windowStartTime = now;
+        }
+
+        for (int i = 0; i < components.size(); i++) {
+            flushPending |= components.get(i).publish(now);
+        }
+
+        if (flushPending && now - lastFlushTime >= TelemetryConstants.FLUSH_PERIOD) {
+            NetworkTableInstance.getDefault().flush();
+            lastFlushTime = now;
+            flushPending = false;
+        }
+    }
+
+    /** A group of channels published together, with its own publish period and bandwidth measurement. */
+    public static final class Component {
+
+        /** Name of the component. */
+        private final String name;
+
+        /** NetworkTable the channels are published under. */
+        private final NetworkTable table;
+
+        /** Minimum time between two publishes, in seconds. */
+        private final double publishPeriod;
+
+        /** Channels of the component. */
+        private final List<Channel> channels = new ArrayList<>();
+
+        /** Timestamp of the last publish, in seconds. */
+        private double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+        /** Estimated bytes published in the current measurement window. */
+        private long windowBytes = 0;
+
+        /** Estimated bandwidth of the last measurement window, in bytes per second. */
+        private double bytesPerSecond = 0.0;
+
+        /** Channel reporting the bandwidth of this component. */
+        private DoubleChannel bandwidthChannel;
+
+        /**
+         * Constructor for the Component class.
+         * @param name          Name of the component.
+         * @param tablePath     NetworkTables path the channels are published under.
+         * @param publishPeriod Minimum time between two publishes, in seconds.
+         */
+        private Component(String name, String tablePath, double publishPeriod) {
+            this.name = name;
+            this.table = NetworkTableInstance.getDefault().getTable(tablePath);
+            this.publishPeriod = publishPeriod;
+        }
+
+        /**
+         * Adds a double channel.
+         * @param key Key of the topic in the component table.
+         * @return The channel.
+         */
+        public DoubleChannel addDouble(String key) {
+            return add(new DoubleChannel(table.getDoubleTopic(key).publish(PubSubOption.periodic(publishPeriod))));
+        }
+
+        /**
+         * Adds a boolean channel.
+         * @param key Key of the topic in the component table.
+         * @return The channel.
+         */
+        public BooleanChannel addBoolean(String key) {
+            return add(new BooleanChannel(table.getBooleanTopic(key).publish(PubSubOption.periodic(publishPeriod))));
+        }
+
+        /**
+         * Adds a double array channel.
+         * @param key Key of the topic in the component table.
+         * @return The channel.
+         */
+        public DoubleArrayChannel addDoubleArray(String key) {
+            return add(new DoubleArrayChannel(table.getDoubleArrayTopic(key).publish(PubSubOption.periodic(publishPeriod))));
+        }
+
+        /**
+         * Adds a channel for an object of a {@link edu.wpi.first.wpilibj.smartdashboard.Field2d}.
+         * @param object Field object to publish poses to.
+         * @return The channel.
+         */
+        public FieldObjectChannel addFieldObject(FieldObject2d object) {
+            return addFieldObject(object, publishPeriod);
+        }
+
+        /**
+         * Adds a channel for an object of a {@link edu.wpi.first.wpilibj.smartdashboard.Field2d}, published less often
+         * than the rest of the component.
+         * @param object    Field object to publish poses to.
+         * @param minPeriod Minimum time between two publishes of the object, in seconds.
+         * @return The channel.
+         */
+        public FieldObjectChannel addFieldObject(FieldObject2d object, double minPeriod) {
+            FieldObjectChannel channel = add(new FieldObjectChannel(object));
+            channel.minPeriod = minPeriod;
+            return channel;
+        }
+
+        /**
+         * Estimated bandwidth of the component over the last measurement window.
+         * @return Bandwidth, in bytes per second.
+         */
+        public double getBytesPerSecond() {
+            return bytesPerSecond;
+        }
+
+        /**
+         * Registers a channel.
+         * @param channel Channel to register.
+         * @return The channel.
+         */
+        private <T extends Channel> T add(T channel) {
+            channels.add(channel);
+            return channel;
+        }
+
+        /**
+         * Publishes every changed channel if the publish period has elapsed.
+         * @param now Current timestamp, in seconds.
+         * @return Whether any channel was published.
+         */
+        private boolean publish(double now) {
+            if (now - lastPublishTime < publishPeriod) {
+                return false;
+            }
+
+            boolean published = false;
+            for (int i = 0; i < channels.size(); i++) {
+                Channel channel = channels.get(i);
+                if (channel.dirty && now - channel.lastPublishTime >= channel.minPeriod) {
+                    windowBytes += channel.publish() + FRAME_OVERHEAD_BYTES;
+                    channel.dirty = false;
+                    channel.lastPublishTime = now;
+                    published = true;
+                }
+            }
+
+            if (published) {
+                lastPublishTime = now;
+            }
+            return published;
+        }
+
+        /**
+         * Ends the current bandwidth measurement window.
+         * @param elapsed Duration of the window, in seconds.
+         */
+        private void closeWindow(double elapsed) {
+            bytesPerSecond = windowBytes / elapsed;
+            windowBytes = 0;
+            bandwidthChannel.set(bytesPerSecond);
+        }
+    }
+
+    /** A single published value, only sent when it changed since the last publish. */
+    public abstract static class Channel {
+
+        /** Whether the value changed since the last publish. */
+        protected boolean dirty = false;
+
+        /** Minimum time between two publishes of this channel, on top of the component period, in seconds. */
+        double minPeriod = 0.0;
+
+        /** Timestamp of the last publish of this channel, in seconds. */
+        double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+        /**
+         * Publishes the current value.
+         * @return Estimated size of the value, in bytes.
+         */
+        protected abstract int publish();
+    }
+
+    /** Channel for a double value. */
+    public static final class DoubleChannel extends Channel {
+        private final DoublePublisher publisher;
+        private double value = Double.NaN;
+
+        private DoubleChannel(DoublePublisher publisher) {
+            this.publisher = publisher;
+        }
+
+        /**
+         * Sets the value to publish.
+         * @param value Value to publish.
+         */
+        public void set(double value) {
+            if (Double.compare(value, this.value) != 0) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        protected int publish() {
+            publisher.set(value);
+            return 9;
+        }
+    }
+
+    /** Channel for a boolean value. */
+    public static final class BooleanChannel extends Channel {
+        private final BooleanPublisher publisher;
+        private boolean value;
+        private boolean initialized = false;
+
+        private BooleanChannel(BooleanPublisher publisher) {
+            this.publisher = publisher;
+        }
+
+        /**
+         * Sets the value to publish.
+         * @param value Value to publish.
+         */
+        public void set(boolean value) {
+            if (!initialized || value != this.value) {
+                this.value = value;
+                initialized = true;
+                dirty = true;
+            }
+        }
+
+        @Override
+        protected int publish() {
+            publisher.set(value);
+            return 1;
+        }
+    }
+
+    /** Channel for a double array value. The values are copied, so the caller may reuse its array. */
+    public static final class DoubleArrayChannel extends Channel {
+        private final DoubleArrayPublisher publisher;
+        private double[] values = new double[0];
+
+        private DoubleArrayChannel(DoubleArrayPublisher publisher) {
+            this.publisher = publisher;
+        }
+
+        /**
+         * Sets the values to publish.
+         * @param values Values to publish.
+         */
+        public void set(double[] values) {
+            if (!Arrays.equals(values, this.values)) {
+                if (values.length != this.values.length) {
+                    this.values = new double[values.length];
+                }
+                System.arraycopy(values, 0, this.values, 0, values.length);
+                dirty = true;
+            }
+        }
+
+        @Override
+        protected int publish() {
+            publisher.set(values);
+            return 3 + 9 * values.length;
+        }
+    }
+
+    /**
+     * Channel for the poses of a {@link FieldObject2d}.
+     * <p>
+     * Poses are written into preallocated buffers, either with {@link #set} or between {@link #begin()} and
+     * {@link #end()}, and compared with the last published poses within
+     * {@link TelemetryConstants#FIELD_POSITION_TOLERANCE} and {@link TelemetryConstants#FIELD_ANGLE_TOLERANCE}. The
+     * object is only republished when they differ, so writing the same poses every loop costs no allocation and no
+     * bandwidth.
+     */
+    public static final class FieldObjectChannel extends Channel {
+        private final FieldObject2d object;
+
+        /** Last published poses, and poses being written, as (x, y, degrees) triples. */
+        private double[] published = new double[3], staged = new double[3];
+        private int publishedCount = 0, stagedCount = 0;
+
+        private FieldObjectChannel(FieldObject2d object) {
+            this.object = object;
+        }
+
+        /**
+         * Sets a single pose to publish.
+         * @param pose Pose to publish.
+         */
+        public void set(Pose2d pose) {
+            begin();
+            add(pose);
+            end();
+        }
+
+        /**
+         * Sets the poses to publish.
+         * @param poses Poses to publish.
+         */
+        public void set(List<Pose2d> poses) {
+            begin();
+            for (int i = 0; i < poses.size(); i++) {
+                add(poses.get(i));
+            }
+            end();
+        }
+
+        /** Starts writing the poses to publish, replacing the previous ones. */
+        public void begin() {
+            stagedCount = 0;
+        }
+
+        /**
+         * Adds a pose to publish, after {@link #begin()}.
+         * @param pose Pose to add.
+         */
+        public void add(Pose2d pose) {
+            if (3 * stagedCount + 3 > staged.length) {
+                staged = Arrays.copyOf(staged, 2 * staged.length);
+            }
+            staged[3 * stagedCount] = pose.getX();
+            staged[3 * stagedCount + 1] = pose.getY();
+            staged[3 * stagedCount + 2] = pose.getRotation().getDegrees();
+            stagedCount++;
+        }
+
+        /** Ends writing the poses, marking the channel changed if they differ from the published poses. */
+        public void end() {
+            dirty = !matchesPublished();
+        }
+
+        /** Whether the written poses are within tolerance of the published poses. */
+        private boolean matchesPublished() {
+            if (stagedCount != publishedCount) {
+                return false;
+            }
+            for (int i = 0; i < 3 * stagedCount; i += 3) {
+                if (Math.abs(staged[i] - published[i]) > TelemetryConstants.FIELD_POSITION_TOLERANCE
+                    || Math.abs(staged[i + 1] - published[i + 1]) > TelemetryConstants.FIELD_POSITION_TOLERANCE
+                    || Math.abs(staged[i + 2] - published[i + 2]) > TelemetryConstants.FIELD_ANGLE_TOLERANCE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected int publish() {
+            // The written buffer becomes the published one, the next poses are written over the old one.
+            double[] swap = published;
+            published = staged;
+            staged = swap;
+            publishedCount = stagedCount;
+
+            Pose2d[] poses = new Pose2d[publishedCount];
+            for (int i = 0; i < publishedCount; i++) {
+                poses[i] = new Pose2d(published[3 * i], published[3 * i + 1],
+                                      Rotation2d.fromDegrees(published[3 * i + 2]));
+            }
+            object.setPoses(poses);
+            return 3 + 27 * publishedCount;
+        }
+    }
+}
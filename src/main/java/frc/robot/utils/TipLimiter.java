@@ -0,0 +1,182 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.DrivebaseConstants;
+import swervelib.math.Matter;
+
+/**
+ * Limits the acceleration of robot relative velocity commands so the robot does not tip.
+ * <p>
+ * The robot tips over an edge of its wheelbase when the inertial force, at the height of the center of mass, has a
+ * larger moment about that edge than gravity. For an edge with outward normal {@code n} at a horizontal distance
+ * {@code d} from the center of mass at height {@code h}, the acceleration must satisfy {@code -a . n <= g d / h}. The
+ * edge normals and offsets are computed once from the module locations, so each evaluation is a few multiplies per
+ * edge. The center of mass combines the chassis and every {@link #addMass registered} mechanism, and is recomputed each
+ * loop only when mechanisms are registered.
+ * <p>
+ * The acceleration includes the centripetal term of turning while driving. When a command exceeds the limit, its
+ * change of velocity is scaled down, keeping its direction, to the largest acceleration every edge allows.
+ */
+public final class TipLimiter {
+
+    /** Standard gravity, in meters per second squared. */
+    private static final double GRAVITY = 9.80665;
+
+    /** Time without commands after which the limiter restarts from the measured velocity, in seconds. */
+    private static final double STALE_TIME = 0.1;
+
+    /** Outward unit normals of the wheelbase edges, and the offset of each edge along its normal, in meters. */
+    private final double[] normalX, normalY, edgeOffset;
+
+    /** Acceleration limit along each edge normal for the current center of mass, in meters per second squared. */
+    private final double[] edgeLimit;
+
+    private final Matter chassis;
+    private final List<Mass> masses = new ArrayList<>();
+
+    /** Last limited command, and when it was computed, in seconds. */
+    private double lastVx, lastVy, lastTime = Double.NEGATIVE_INFINITY;
+
+    /** Fraction of the commanded change of velocity applied by the last {@link #limit}, 1 when not limited. */
+    private double lastScale = 1.0;
+
+    /**
+     * Constructor for the TipLimiter class.
+     * @param moduleLocations Locations of the swerve modules relative to the robot center, in meters.
+     * @param chassis         Mass and center of mass of the chassis, without mechanisms.
+     */
+    public TipLimiter(Translation2d[] moduleLocations, Matter chassis) {
+        this.chassis = chassis;
+
+        // Order the modules around the robot center, so consecutive modules form the edges of the wheelbase.
+        Translation2d[] corners = moduleLocations.clone();
+        Arrays.sort(corners, Comparator.comparingDouble(corner -> Math.atan2(corner.getY(), corner.getX())));
+
+        int edges = corners.length;
+        normalX = new double[edges];
+        normalY = new double[edges];
+        edgeOffset = new double[edges];
+        edgeLimit = new double[edges];
+        for (int i = 0; i < edges; i++) {
+            Translation2d from = corners[i];
+            Translation2d to = corners[(i + 1) % edges];
+            double length = from.getDistance(to);
+            // Counterclockwise corners, the outward normal is the edge direction turned clockwise.
+            normalX[i] = (to.getY() - from.getY()) / length;
+            normalY[i] = -(to.getX() - from.getX()) / length;
+            edgeOffset[i] = normalX[i] * from.getX() + normalY[i] * from.getY();
+        }
+        updateCenterOfMass();
+    }
+
+    /**
+     * Registers the mass of a mechanism, such as an elevator or an arm, whose position changes the center of mass.
+     * @param mass     Mass of the mechanism, in kilograms.
+     * @param position Supplier of the center of mass of the mechanism relative to the robot center, in meters.
+     */
+    public void addMass(double mass, Supplier<Translation3d> position) {
+        masses.add(new Mass(mass, position));
+        updateCenterOfMass();
+    }
+
+    /**
+     * Limits the acceleration from the previous command to the next one. Call once per command.
+     * @param desired          Desired robot relative speeds.
+     * @param measuredVelocity Supplier of the measured robot relative velocity, used after a pause in commands.
+     * @return The desired speeds if they are safe, otherwise new speeds with a smaller change of velocity.
+     */
+    public ChassisSpeeds limit(ChassisSpeeds desired, Supplier<ChassisSpeeds> measuredVelocity) {
+        double now = Timer.getFPGATimestamp();
+        double dt = now - lastTime;
+        lastTime = now;
+        if (dt > STALE_TIME || dt <= 0) {
+            ChassisSpeeds measured = measuredVelocity.get();
+            lastVx = measured.vxMetersPerSecond;
+            lastVy = measured.vyMetersPerSecond;
+            dt = DrivebaseConstants.TIP_LIMITER_PERIOD;
+        }
+        if (!masses.isEmpty()) {
+            updateCenterOfMass();
+        }
+
+        // Acceleration of the center of mass: change of velocity, plus the centripetal term in the rotating frame.
+        double omega = desired.omegaRadiansPerSecond;
+        double deltaX = desired.vxMetersPerSecond - lastVx;
+        double deltaY = desired.vyMetersPerSecond - lastVy;
+        double centripetalX = -omega * desired.vyMetersPerSecond;
+        double centripetalY = omega * desired.vxMetersPerSecond;
+
+        double scale = 1.0;
+        for (int i = 0; i < edgeLimit.length; i++) {
+            // -(s * delta / dt + centripetal) . n <= limit, solved for the largest s.
+            double deltaToward = -(deltaX * normalX[i] + deltaY * normalY[i]) / dt;
+            if (deltaToward > 0) {
+                double available = edgeLimit[i] + centripetalX * normalX[i] + centripetalY * normalY[i];
+                scale = Math.min(scale, Math.max(0.0, available) / deltaToward);
+            }
+        }
+        lastScale = scale;
+
+        if (scale >= 1.0) {
+            lastVx = desired.vxMetersPerSecond;
+            lastVy = desired.vyMetersPerSecond;
+            return desired;
+        }
+        lastVx += deltaX * scale;
+        lastVy += deltaY * scale;
+        return new ChassisSpeeds(lastVx, lastVy, omega);
+    }
+
+    /**
+     * Returns how much of the commanded change of velocity the last command kept.
+     * @return The fraction kept, 1 when the last command was not limited.
+     */
+    public double getLastScale() {
+        return lastScale;
+    }
+
+    /** Recomputes the center of mass and the acceleration limit along each edge. */
+    private void updateCenterOfMass() {
+        double totalMass = chassis.mass;
+        double x = chassis.mass * chassis.position.getX();
+        double y = chassis.mass * chassis.position.getY();
+        double z = chassis.mass * chassis.position.getZ();
+        for (int i = 0; i < masses.size(); i++) {
+            Mass mass = masses.get(i);
+            Translation3d position = mass.position.get();
+            totalMass += mass.mass;
+            x += mass.mass * position.getX();
+            y += mass.mass * position.getY();
+            z += mass.mass * position.getZ();
+        }
+        x /= totalMass;
+        y /= totalMass;
+        z /= totalMass;
+
+        double gravityOverHeight = DrivebaseConstants.TIP_MARGIN * GRAVITY / z;
+        for (int i = 0; i < edgeLimit.length; i++) {
+            double distance = edgeOffset[i] - (normalX[i] * x + normalY[i] * y);
+            edgeLimit[i] = Math.max(0.0, distance) * gravityOverHeight;
+        }
+    }
+
+    /** A registered mechanism mass. */
+    private static final class Mass {
+        private final double mass;
+        private final Supplier<Translation3d> position;
+
+        private Mass(double mass, Supplier<Translation3d> position) {
+            this.mass = mass;
+            this.position = position;
+        }
+    }
+}
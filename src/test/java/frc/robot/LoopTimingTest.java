@@ -0,0 +1,189 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Constants.PeriodicConstants;
+import frc.robot.utils.LoopWatchdog;
+
+/**
+ * Loop timing regression suite: boots the robot under HAL simulation and runs a scripted match on simulated time,
+ * then checks the per-loop CPU time and the time and main thread allocations of the drivebase, vision, navigator
+ * and pathfinder against budgets.
+ * <p>
+ * The budgets are for the desktop JVM of the build machine, with headroom for slower machines. They catch
+ * regressions, not the absolute timing of the roboRIO. The loop is budgeted on main thread CPU time, which a shared
+ * machine does not inflate. Components are timed by the {@link LoopWatchdog} epochs in wall time, so their 99th
+ * percentile budgets leave room for scheduling noise while still catching tail overruns. Autonomous runs the
+ * {@value #AUTON} routine, so path following is measured, and teleop pathfinds with drive to pose. Time before the
+ * match is spent disabled, where the {@link frc.robot.utils.JitWarmup} compiles the hot paths and the routine is
+ * prepared, and is not measured.
+ */
+class LoopTimingTest {
+
+    /** Robot loop period, in seconds. */
+    private static final double LOOP_PERIOD = 0.02;
+
+    /** Disabled time before the match, autonomous time and total match time, in seconds. */
+    private static final double PRE_MATCH_TIME = 10.0, AUTONOMOUS_TIME = 15.0, MATCH_TIME = 150.0;
+
+    /** Autonomous routine selected in the auton chooser, following paths. */
+    private static final String AUTON = "Example";
+
+    /** Main thread CPU time of a whole loop, median and 99th percentile, in milliseconds. */
+    private static final double LOOP_CPU_P50 = 5.0, LOOP_CPU_P99 = 15.0;
+
+    /** Components measured, from the owners of the {@link LoopWatchdog} epochs, and their budgets. */
+    private static final Component[] COMPONENTS = {
+        // Owner prefixes, time median and 99th percentile in milliseconds, median allocated bytes per loop.
+        new Component("SwerveSubsystem", new String[] {"Swerve"}, 2.0, 8.0, 16 * 1024),
+        new Component("VisionUtils", new String[] {"Vision"}, 3.0, 12.0, 64 * 1024),
+        new Component("PoseNavigator", new String[] {"PoseNavigator"}, 1.0, 5.0, 4 * 1024),
+        new Component("Pathfinder", new String[] {"Pathfinder"}, 0.5, 5.0, 1024),
+    };
+
+    @Test
+    void simulatedMatchStaysWithinLoopBudgets() {
+        // Epochs are only attributed per task when the periodic work runs on the main thread.
+        Assumptions.assumeFalse(PeriodicConstants.PARALLEL, "Loop timing is measured with serial periodic tasks");
+
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setJoystickAxisCount(0, 6);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        LoopWatchdog watchdog = LoopWatchdog.getInstance();
+        int loops = (int) Math.round(MATCH_TIME / LOOP_PERIOD);
+        long[] loopCpu = new long[loops];
+        long[][] componentNanos = new long[COMPONENTS.length][loops];
+        long[][] componentBytes = new long[COMPONENTS.length][loops];
+
+        Robot robot = new Robot();
+        try {
+            robot.robotInit();
+            robot.simulationInit();
+            NetworkTableInstance.getDefault().getEntry("/SmartDashboard/Auton Chooser/selected").setString(AUTON);
+
+            for (int i = 0; i < Math.round(PRE_MATCH_TIME / LOOP_PERIOD); i++) {
+                step(robot);
+            }
+
+            for (int i = 0; i < loops; i++) {
+                script(i * LOOP_PERIOD);
+
+                long cpuStart = threads.getCurrentThreadCpuTime();
+                step(robot);
+                loopCpu[i] = threads.getCurrentThreadCpuTime() - cpuStart;
+
+                for (int e = 0; e < watchdog.getEpochCount(); e++) {
+                    String owner = watchdog.getEpochOwner(e);
+                    for (int c = 0; c < COMPONENTS.length; c++) {
+                        if (COMPONENTS[c].owns(owner)) {
+                            componentNanos[c][i] += watchdog.getEpochNanos(e);
+                            componentBytes[c][i] += watchdog.getEpochAllocatedBytes(e);
+                        }
+                    }
+                }
+            }
+        } finally {
+            robot.close();
+            SimHooks.resumeTiming();
+        }
+
+        List<Executable> checks = new ArrayList<>();
+        checks.add(() -> assertBudget("Loop CPU p50 (ms)", percentile(loopCpu, 0.50) / 1e6, LOOP_CPU_P50));
+        checks.add(() -> assertBudget("Loop CPU p99 (ms)", percentile(loopCpu, 0.99) / 1e6, LOOP_CPU_P99));
+        for (int c = 0; c < COMPONENTS.length; c++) {
+            Component component = COMPONENTS[c];
+            long[] nanos = componentNanos[c];
+            long[] bytes = componentBytes[c];
+            checks.add(() -> assertBudget(component.name + " p50 (ms)", percentile(nanos, 0.50) / 1e6, component.p50Millis));
+            checks.add(() -> assertBudget(component.name + " p99 (ms)", percentile(nanos, 0.99) / 1e6, component.p99Millis));
+            checks.add(() -> assertBudget(component.name + " allocated p50 (bytes)", percentile(bytes, 0.50),
+                                          component.p50Bytes));
+        }
+        assertAll("Loop timing budgets", checks);
+    }
+
+    /** Runs one robot loop and advances the simulated time by one period. */
+    private static void step(Robot robot) {
+        robot.loopFunc();
+        SimHooks.stepTiming(LOOP_PERIOD);
+    }
+
+    /**
+     * Sets the driver station state and the driver controller for a time in the match: the {@value #AUTON} autonomous,
+     * then teleop driving circles while turning, holding the drive to pose trigger, which pathfinds, for 5 s out of
+     * every 20 s.
+     */
+    private static void script(double time) {
+        boolean autonomous = time < AUTONOMOUS_TIME;
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.setAutonomous(autonomous);
+
+        double teleopTime = autonomous ? 0 : time - AUTONOMOUS_TIME;
+        boolean driveToPose = !autonomous && teleopTime % 20.0 >= 15.0;
+        DriverStationSim.setJoystickAxis(0, XboxController.Axis.kLeftY.value,
+                                         autonomous ? 0 : (float) (-0.8 * Math.cos(teleopTime * 0.5)));
+        DriverStationSim.setJoystickAxis(0, XboxController.Axis.kLeftX.value,
+                                         autonomous ? 0 : (float) (0.8 * Math.sin(teleopTime * 0.5)));
+        DriverStationSim.setJoystickAxis(0, XboxController.Axis.kRightX.value,
+                                         autonomous ? 0 : (float) (0.5 * Math.sin(teleopTime * 0.2)));
+        DriverStationSim.setJoystickAxis(0, XboxController.Axis.kLeftTrigger.value, driveToPose ? 1 : 0);
+        DriverStationSim.notifyNewData();
+    }
+
+    /** Value below which a fraction of the samples lie. */
+    private static double percentile(long[] samples, double fraction) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static void assertBudget(String name, double value, double budget) {
+        assertTrue(value <= budget, String.format("%s: %.2f over the budget of %.2f", name, value, budget));
+    }
+
+    /** A measured part of the loop and its budgets. */
+    private static final class Component {
+        private final String name;
+        private final String[] ownerPrefixes;
+        private final double p50Millis, p99Millis, p50Bytes;
+
+        private Component(String name, String[] ownerPrefixes, double p50Millis, double p99Millis, double p50Bytes) {
+            this.name = name;
+            this.ownerPrefixes = ownerPrefixes;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.p50Bytes = p50Bytes;
+        }
+
+        /** Whether an epoch owner belongs to this component. */
+        private boolean owns(String owner) {
+            for (String prefix : ownerPrefixes) {
+                if (owner.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.utils.RobotState;
+
+/**
+ * Equivalence check of the incremental {@link DStarLitePathfinder} repair: the robot moves and the dynamic obstacles
+ * change at random, and after every converged update the cost of the search from the start cell must match a
+ * Dijkstra search from scratch over the same grid and cost model.
+ */
+class DStarLitePathfinderTest {
+
+    /** Robot frame size used to inflate the grid, in meters. */
+    private static final double ROBOT_SIZE = 0.9;
+
+    /** Number of random steps, and updates allowed for a step to converge. */
+    private static final int STEPS = 300, MAX_UPDATES = 100;
+
+    /** Dynamic obstacles per step and their radius range, in meters. */
+    private static final int MAX_OBSTACLES = 4;
+    private static final double MIN_RADIUS = 0.3, MAX_RADIUS = 1.0;
+
+    /** Moves between the cells of the grid, in the order of the pathfinder. */
+    private static final int[] COLUMN_OFFSETS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] ROW_OFFSETS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void incrementalRepairMatchesDijkstra() {
+        assertTrue(HAL.initialize(500, 0));
+
+        NavigationGrid grid = NavigationGrid.generate(ROBOT_SIZE, ROBOT_SIZE);
+        double fieldLength = grid.getColumns() * grid.getNodeSize(), fieldWidth = grid.getRows() * grid.getNodeSize();
+
+        Random random = new Random(4593);
+        RobotState[] state = {createState(randomPosition(random, fieldLength, fieldWidth))};
+        DStarLitePathfinder pathfinder = new DStarLitePathfinder(grid, () -> state[0]);
+        pathfinder.setGoalPosition(randomPosition(random, fieldLength, fieldWidth));
+
+        for (int step = 0; step < STEPS; step++) {
+            // Mostly small moves of the robot, with occasional jumps and new goals.
+            Translation2d position = state[0].pose.getTranslation();
+            if (random.nextInt(10) == 0) {
+                position = randomPosition(random, fieldLength, fieldWidth);
+            } else {
+                position = new Translation2d(
+                    Math.max(0, Math.min(fieldLength, position.getX() + random.nextGaussian() * 0.3)),
+                    Math.max(0, Math.min(fieldWidth, position.getY() + random.nextGaussian() * 0.3)));
+            }
+            state[0] = createState(position);
+            if (random.nextInt(20) == 0) {
+                pathfinder.setGoalPosition(randomPosition(random, fieldLength, fieldWidth));
+            }
+
+            double[] circles = new double[random.nextInt(MAX_OBSTACLES + 1) * 3];
+            for (int i = 0; i < circles.length; i += 3) {
+                Translation2d center = randomPosition(random, fieldLength, fieldWidth);
+                circles[i] = center.getX();
+                circles[i + 1] = center.getY();
+                circles[i + 2] = MIN_RADIUS + random.nextDouble() * (MAX_RADIUS - MIN_RADIUS);
+            }
+            pathfinder.setObstacles(DStarLitePathfinder.VISION_SOURCE, circles);
+
+            int updates = 0;
+            do {
+                pathfinder.isNewPathAvailable();
+                pathfinder.update();
+            } while (!pathfinder.isConverged() && ++updates < MAX_UPDATES);
+            assertTrue(pathfinder.isConverged(), "Search did not converge at step " + step);
+
+            double expected = dijkstra(grid, pathfinder.getGoalCell())[pathfinder.getStartCell()];
+            double actual = pathfinder.getStartCost();
+            if (Double.isInfinite(expected)) {
+                assertEquals(Double.POSITIVE_INFINITY, actual, "Unreachable start has a cost at step " + step);
+            } else {
+                assertEquals(expected, actual, TOLERANCE, "Start cost differs from Dijkstra at step " + step);
+            }
+        }
+    }
+
+    private static RobotState createState(Translation2d position) {
+        return new RobotState(0, new Pose2d(position, new Rotation2d()), new ChassisSpeeds(),
+                              new SwerveModuleState[0], new Rotation2d(), 0, false);
+    }
+
+    private static Translation2d randomPosition(Random random, double fieldLength, double fieldWidth) {
+        return new Translation2d(random.nextDouble() * fieldLength, random.nextDouble() * fieldWidth);
+    }
+
+    /**
+     * Shortest path costs to a goal cell from every cell, with the cost model of the pathfinder: 1 per orthogonal move,
+     * sqrt(2) per diagonal move, no move through blocked cells or cut corners.
+     */
+    private static double[] dijkstra(NavigationGrid grid, int goal) {
+        int columns = grid.getColumns(), rows = grid.getRows();
+        double[] cost = new double[columns * rows];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[goal] = 0;
+
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[] {0, goal});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int cell = (int) entry[1];
+            if (entry[0] > cost[cell] || grid.isBlocked(cell)) {
+                continue;
+            }
+            int column = cell % columns, row = cell / columns;
+            for (int direction = 0; direction < 8; direction++) {
+                int c = column + COLUMN_OFFSETS[direction], r = row + ROW_OFFSETS[direction];
+                if (c < 0 || r < 0 || c >= columns || r >= rows || grid.isBlocked(r * columns + c)) {
+                    continue;
+                }
+                boolean diagonal = (direction & 1) == 1;
+                if (diagonal && (grid.isBlocked(row * columns + c) || grid.isBlocked(r * columns + column))) {
+                    continue;
+                }
+                double next = entry[0] + (diagonal ? Math.sqrt(2) : 1);
+                if (next < cost[r * columns + c]) {
+                    cost[r * columns + c] = next;
+                    queue.add(new double[] {next, r * columns + c});
+                }
+            }
+        }
+        return cost;
+    }
+}